@@ -13,6 +13,7 @@ open module net.neoforged.bus.jmh {
 
     requires static org.jetbrains.annotations;
     requires static net.neoforged.bus.testjars;
+    requires static net.neoforged.bus.testjars.indexed;
 
     exports net.neoforged.bus.benchmarks;
 }
\ No newline at end of file
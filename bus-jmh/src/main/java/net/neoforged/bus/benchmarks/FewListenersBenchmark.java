@@ -6,6 +6,7 @@
 package net.neoforged.bus.benchmarks;
 
 import net.neoforged.bus.benchmarks.compiled.BenchmarkArmsLength;
+import net.neoforged.bus.benchmarks.compiled.indexed.BenchmarkIndexed;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
@@ -37,4 +38,42 @@ public class FewListenersBenchmark {
         BenchmarkArmsLength.postCombined(BenchmarkArmsLength.NoLoader);
         return 0;
     }
+
+    // Generated dispatchers
+    @Benchmark
+    public int testDynamicGenerated() {
+        BenchmarkArmsLength.postDynamic(BenchmarkArmsLength.GeneratedDispatchers);
+        return 0;
+    }
+
+    @Benchmark
+    public int testLambdaGenerated() {
+        BenchmarkArmsLength.postLambda(BenchmarkArmsLength.GeneratedDispatchers);
+        return 0;
+    }
+
+    @Benchmark
+    public int testStaticGenerated() {
+        BenchmarkArmsLength.postStatic(BenchmarkArmsLength.GeneratedDispatchers);
+        return 0;
+    }
+
+    @Benchmark
+    public int testCombinedGenerated() {
+        BenchmarkArmsLength.postCombined(BenchmarkArmsLength.GeneratedDispatchers);
+        return 0;
+    }
+
+    // Listeners created by subscriber indexes
+    @Benchmark
+    public int testDynamicIndexed() {
+        BenchmarkIndexed.postDynamic(BenchmarkIndexed.NoLoader);
+        return 0;
+    }
+
+    @Benchmark
+    public int testStaticIndexed() {
+        BenchmarkIndexed.postStatic(BenchmarkIndexed.NoLoader);
+        return 0;
+    }
 }
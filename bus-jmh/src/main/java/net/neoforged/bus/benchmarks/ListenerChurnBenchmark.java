@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.benchmarks;
+
+import net.neoforged.bus.api.*;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Registers and unregisters a short-lived listener object on a bus that has listeners for many event types,
+ * like per-player or per-entity handlers do.
+ */
+@State(Scope.Benchmark)
+public class ListenerChurnBenchmark {
+    private static final IEventBus BUS = BusBuilder.builder().build();
+
+    public static class Event0 extends Event {}
+    public static class Event1 extends Event {}
+    public static class Event2 extends Event {}
+    public static class Event3 extends Event {}
+    public static class Event4 extends Event {}
+    public static class Event5 extends Event {}
+    public static class Event6 extends Event {}
+    public static class Event7 extends Event {}
+    public static class Event8 extends Event {}
+    public static class Event9 extends Event {}
+    public static class Event10 extends Event {}
+    public static class Event11 extends Event {}
+    public static class Event12 extends Event {}
+    public static class Event13 extends Event {}
+    public static class Event14 extends Event {}
+    public static class Event15 extends Event {}
+
+    public static class LongLived {
+        @SubscribeEvent
+        public void on0(Event0 event) {}
+
+        @SubscribeEvent
+        public void on1(Event1 event) {}
+
+        @SubscribeEvent
+        public void on2(Event2 event) {}
+
+        @SubscribeEvent
+        public void on3(Event3 event) {}
+
+        @SubscribeEvent
+        public void on4(Event4 event) {}
+
+        @SubscribeEvent
+        public void on5(Event5 event) {}
+
+        @SubscribeEvent
+        public void on6(Event6 event) {}
+
+        @SubscribeEvent
+        public void on7(Event7 event) {}
+
+        @SubscribeEvent
+        public void on8(Event8 event) {}
+
+        @SubscribeEvent
+        public void on9(Event9 event) {}
+
+        @SubscribeEvent
+        public void on10(Event10 event) {}
+
+        @SubscribeEvent
+        public void on11(Event11 event) {}
+
+        @SubscribeEvent
+        public void on12(Event12 event) {}
+
+        @SubscribeEvent
+        public void on13(Event13 event) {}
+
+        @SubscribeEvent
+        public void on14(Event14 event) {}
+
+        @SubscribeEvent
+        public void on15(Event15 event) {}
+    }
+
+    public static class ShortLived {
+        @SubscribeEvent
+        public void on0(Event0 event) {}
+
+        @SubscribeEvent
+        public void on7(Event7 event) {}
+    }
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < 100; ++i) {
+            BUS.register(new LongLived());
+        }
+    }
+
+    @Benchmark
+    public Object testRegisterUnregister() {
+        ShortLived listener = new ShortLived();
+        BUS.register(listener);
+        BUS.unregister(listener);
+        return listener;
+    }
+}
@@ -39,7 +39,58 @@ public class ListenerRebuildBenchmark {
         return i;
     }
 
+    /**
+     * Registers to the root of an event hierarchy, which has to update the lists of all subclasses.
+     */
+    @Benchmark
+    public int testOneThousandRebuildsDeepHierarchy() {
+        final IEventBus bus = BusBuilder.builder().build();
+
+        int i = 0;
+        for (; i < 1000; i++) {
+            bus.addListener(RootEvent.class, ev -> {});
+            bus.post(DeepEvent.INSTANCE);
+        }
+        return i;
+    }
+
+    @Benchmark
+    public int testOneThousandRegistrations() {
+        final IEventBus bus = BusBuilder.builder().build();
+
+        int i = 0;
+        for (; i < 1000; i++) {
+            bus.addListener(RootEvent.class, ev -> {});
+        }
+        bus.post(DeepEvent.INSTANCE);
+        return i;
+    }
+
+    @Benchmark
+    public int testOneThousandRegistrationsBatched() {
+        final IEventBus bus = BusBuilder.builder().build();
+
+        int[] i = { 0 };
+        bus.registerBatch(batch -> {
+            for (; i[0] < 1000; i[0]++) {
+                batch.addListener(RootEvent.class, ev -> {});
+            }
+        });
+        bus.post(DeepEvent.INSTANCE);
+        return i[0];
+    }
+
     private static final class SomeEvent extends Event {
         private static final SomeEvent INSTANCE = new SomeEvent();
     }
+
+    private static class RootEvent extends Event {}
+
+    private static class MiddleEvent extends RootEvent {}
+
+    private static class InnerEvent extends MiddleEvent {}
+
+    private static final class DeepEvent extends InnerEvent {
+        private static final DeepEvent INSTANCE = new DeepEvent();
+    }
 }
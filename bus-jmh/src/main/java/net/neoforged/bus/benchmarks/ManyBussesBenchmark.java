@@ -5,6 +5,7 @@
 
 package net.neoforged.bus.benchmarks;
 
+import java.util.List;
 import net.neoforged.bus.api.*;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
@@ -20,6 +21,7 @@ public class ManyBussesBenchmark {
     }
 
     private final IEventBus[] busses = new IEventBus[BUS_COUNT];
+    private CompositeEventBus composite;
 
     @Setup
     public void setup() {
@@ -36,6 +38,7 @@ public class ManyBussesBenchmark {
                 busses[i].addListener(EventPriority.LOW, TestEvent.class, event -> event.value++);
             }
         }
+        composite = CompositeEventBus.of(List.of(busses));
     }
 
     @Benchmark
@@ -60,4 +63,12 @@ public class ManyBussesBenchmark {
         }
         return testEvent.value;
     }
+
+    /**
+     * Same semantics as {@link #testManyBussesPerPhase()}, with the listeners of all busses merged ahead of time.
+     */
+    @Benchmark
+    public int testManyBussesComposite() {
+        return composite.post(new TestEvent()).value;
+    }
 }
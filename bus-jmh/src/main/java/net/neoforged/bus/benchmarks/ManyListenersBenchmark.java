@@ -5,6 +5,8 @@
 
 package net.neoforged.bus.benchmarks;
 
+import java.util.ArrayList;
+import java.util.List;
 import net.neoforged.bus.api.*;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
@@ -14,6 +16,8 @@ import org.openjdk.jmh.annotations.State;
 @State(Scope.Benchmark)
 public class ManyListenersBenchmark {
     private static final IEventBus BUS = BusBuilder.builder().build();
+    private static final EventPoster<TestEvent> POSTER = BUS.poster(TestEvent.class);
+    private static final EventPoster<TestCancellableEvent> CANCELLABLE_POSTER = BUS.poster(TestCancellableEvent.class);
 
     public static class TestEvent extends Event {
         int x = 0;
@@ -47,13 +51,26 @@ public class ManyListenersBenchmark {
         }
     }
 
+    private final List<TestEvent> batch = new ArrayList<>();
+    /**
+     * Created per trial, since a frozen bus can't get more listeners.
+     */
+    private final IEventBus frozenBus = BusBuilder.builder().build();
+
     @Setup
     public void setup() {
         for (int i = 0; i < 10; ++i) {
             for (int j = 0; j < 10; ++j) {
                 BUS.register(new Listeners(j));
+                frozenBus.register(new Listeners(j));
             }
         }
+        frozenBus.freeze();
+        for (int i = 0; i < 1000; ++i) {
+            TestEvent event = new TestEvent();
+            event.x = i % 10;
+            batch.add(event);
+        }
     }
 
     @Benchmark
@@ -65,4 +82,36 @@ public class ManyListenersBenchmark {
     public int testHundredListenersCancellable() {
         return BUS.post(new TestCancellableEvent()).y;
     }
+
+    @Benchmark
+    public int testHundredListenersFrozen() {
+        return frozenBus.post(new TestEvent()).y;
+    }
+
+    @Benchmark
+    public int testHundredListenersCancellableFrozen() {
+        return frozenBus.post(new TestCancellableEvent()).y;
+    }
+
+    @Benchmark
+    public int testHundredListenersPoster() {
+        return POSTER.post(new TestEvent()).y;
+    }
+
+    @Benchmark
+    public int testHundredListenersCancellablePoster() {
+        return CANCELLABLE_POSTER.post(new TestCancellableEvent()).y;
+    }
+
+    @Benchmark
+    public void testThousandEventsPostEach() {
+        for (TestEvent event : batch) {
+            BUS.post(event);
+        }
+    }
+
+    @Benchmark
+    public void testThousandEventsPostAll() {
+        BUS.postAll(TestEvent.class, batch);
+    }
 }
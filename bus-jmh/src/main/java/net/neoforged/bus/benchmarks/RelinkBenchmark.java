@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.benchmarks;
+
+import net.neoforged.bus.api.*;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Posting through the posters of a bus that relinks on register, whose call site lets the JIT inline the listeners,
+ * compared to the posters of a regular bus.
+ */
+@State(Scope.Benchmark)
+public class RelinkBenchmark {
+    public static class TestEvent extends Event {
+        int value;
+    }
+
+    public static class TestCancellableEvent extends Event implements ICancellableEvent {
+        int value;
+    }
+
+    private EventPoster<TestEvent> poster;
+    private EventPoster<TestCancellableEvent> cancellablePoster;
+    private EventPoster<TestEvent> linkedPoster;
+    private EventPoster<TestCancellableEvent> linkedCancellablePoster;
+
+    @Setup
+    public void setup() {
+        IEventBus bus = BusBuilder.builder().generateDispatchers(16).build();
+        IEventBus linkedBus = BusBuilder.builder().generateDispatchers(16).relinkOnRegister().build();
+        for (IEventBus b : new IEventBus[] { bus, linkedBus }) {
+            b.addListener(TestEvent.class, e -> e.value++);
+            b.addListener(EventPriority.HIGH, TestEvent.class, e -> e.value += 2);
+            b.addListener(EventPriority.LOW, TestEvent.class, e -> e.value *= 3);
+            b.addListener(TestCancellableEvent.class, e -> e.value++);
+            b.addListener(EventPriority.HIGH, TestCancellableEvent.class, e -> e.value += 2);
+            b.addListener(EventPriority.LOW, true, TestCancellableEvent.class, e -> e.value *= 3);
+        }
+        poster = bus.poster(TestEvent.class);
+        cancellablePoster = bus.poster(TestCancellableEvent.class);
+        linkedPoster = linkedBus.poster(TestEvent.class);
+        linkedCancellablePoster = linkedBus.poster(TestCancellableEvent.class);
+    }
+
+    @Benchmark
+    public int testPoster() {
+        return poster.post(new TestEvent()).value;
+    }
+
+    @Benchmark
+    public int testPosterCancellable() {
+        return cancellablePoster.post(new TestCancellableEvent()).value;
+    }
+
+    @Benchmark
+    public int testLinkedPoster() {
+        return linkedPoster.post(new TestEvent()).value;
+    }
+
+    @Benchmark
+    public int testLinkedPosterCancellable() {
+        return linkedCancellablePoster.post(new TestCancellableEvent()).value;
+    }
+}
@@ -0,0 +1,10 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+module net.neoforged.bus.processor {
+    requires java.compiler;
+
+    provides javax.annotation.processing.Processor with net.neoforged.bus.processor.SubscriberIndexProcessor;
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Validates {@code @SubscribeEvent} methods at compile time, reporting the errors that registering them would throw,
+ * and generates a {@code SubscriberIndex} for each class declaring them.
+ * <p>
+ * The index creates listeners that call the methods directly, so that the bus neither reflects over the class
+ * nor generates classes at runtime when registering it.
+ * No index is generated for classes whose methods or types can't be accessed from another class of the same package,
+ * which are still registered through reflection, nor for classes mixing static and instance methods, which only get a warning.
+ * <p>
+ * The processor only refers to the bus by name, so it does not need the bus on its own classpath.
+ */
+@SupportedAnnotationTypes(SubscriberIndexProcessor.SUBSCRIBE_EVENT)
+public class SubscriberIndexProcessor extends AbstractProcessor {
+    static final String SUBSCRIBE_EVENT = "net.neoforged.bus.api.SubscribeEvent";
+    private static final String EVENT = "net.neoforged.bus.api.Event";
+    private static final String EVENT_PRIORITY = "net.neoforged.bus.api.EventPriority";
+    private static final String EVENT_LISTENER = "net.neoforged.bus.api.EventListener";
+    private static final String SUBSCRIBER_INDEX = "net.neoforged.bus.api.SubscriberIndex";
+    private static final String SUBSCRIBER_INDEX_LISTENER = SUBSCRIBER_INDEX + ".Listener";
+    /**
+     * Same as {@code SubscriberIndex.SUFFIX}.
+     */
+    private static final String SUFFIX = "$$SubscriberIndex";
+
+    /**
+     * The classes whose index was generated in a previous round.
+     */
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement subscribeEvent = processingEnv.getElementUtils().getTypeElement(SUBSCRIBE_EVENT);
+        TypeElement event = processingEnv.getElementUtils().getTypeElement(EVENT);
+        if (subscribeEvent == null || event == null) {
+            // The bus is not on the compile classpath, nothing can be annotated
+            return false;
+        }
+
+        // Group the methods per declaring class, keeping the declaration order
+        Map<TypeElement, List<ExecutableElement>> methodsByClass = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(subscribeEvent))) {
+            methodsByClass.computeIfAbsent((TypeElement) method.getEnclosingElement(), k -> new ArrayList<>()).add(method);
+        }
+
+        methodsByClass.forEach((type, methods) -> {
+            if (validate(type, methods, subscribeEvent, event) && isIndexable(type, methods)
+                    && generated.add(type.getQualifiedName().toString())) {
+                writeIndex(type, methods, subscribeEvent);
+            }
+        });
+        return false;
+    }
+
+    /**
+     * Reports the errors that {@code register} would throw for the class, which are all independent of the bus.
+     *
+     * @return whether the class is valid
+     */
+    private boolean validate(TypeElement type, List<ExecutableElement> methods, TypeElement subscribeEvent, TypeElement event) {
+        Messager messager = processingEnv.getMessager();
+        Types types = processingEnv.getTypeUtils();
+        boolean valid = true;
+
+        for (ExecutableElement method : methods) {
+            List<? extends VariableElement> parameters = method.getParameters();
+            if (parameters.size() != 1) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Method " + method + " has @SubscribeEvent annotation. " +
+                        "It has " + parameters.size() + " arguments, " +
+                        "but event handler methods require a single argument only.", method);
+                valid = false;
+                continue;
+            }
+
+            TypeMirror eventType = types.erasure(parameters.get(0).asType());
+            if (!types.isSubtype(eventType, types.erasure(event.asType()))) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Method " + method + " has @SubscribeEvent annotation, " +
+                        "but takes an argument that is not an Event subtype : " + eventType, method);
+                valid = false;
+            } else if (types.asElement(eventType).getModifiers().contains(Modifier.ABSTRACT)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Cannot register listeners for abstract " + eventType +
+                        ". Register a listener to one of its subclasses instead!", method);
+                valid = false;
+            }
+        }
+
+        Element annotated = findAnnotatedSupertypeMethod(type.getSuperclass(), subscribeEvent);
+        for (TypeMirror itf : type.getInterfaces()) {
+            if (annotated == null) {
+                annotated = findAnnotatedSupertypeMethod(itf, subscribeEvent);
+            }
+        }
+        if (annotated != null) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Class " + type + " has @SubscribeEvent methods, " +
+                    "however its supertype " + annotated.getEnclosingElement() + " has a @SubscribeEvent method: " + annotated + ". " +
+                    "This is not allowed! Only the listener object can have @SubscribeEvent methods.", type);
+            valid = false;
+        }
+        return valid;
+    }
+
+    private static Element findAnnotatedSupertypeMethod(TypeMirror supertype, TypeElement subscribeEvent) {
+        if (supertype.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement type = (TypeElement) ((DeclaredType) supertype).asElement();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+                if (annotation.getAnnotationType().asElement().equals(subscribeEvent)) {
+                    return method;
+                }
+            }
+        }
+        Element annotated = findAnnotatedSupertypeMethod(type.getSuperclass(), subscribeEvent);
+        for (TypeMirror itf : type.getInterfaces()) {
+            if (annotated == null) {
+                annotated = findAnnotatedSupertypeMethod(itf, subscribeEvent);
+            }
+        }
+        return annotated;
+    }
+
+    /**
+     * {@return whether a class in the same package can call all methods of the class, with their event types}
+     */
+    private boolean isIndexable(TypeElement type, List<ExecutableElement> methods) {
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            return false;
+        }
+        // register() throws for such classes, but their static methods can still be registered one by one
+        boolean anyStatic = methods.stream().anyMatch(SubscriberIndexProcessor::isStatic);
+        boolean anyInstance = methods.stream().anyMatch(m -> !isStatic(m));
+        if (anyStatic && anyInstance) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Class " + type + " mixes static and instance @SubscribeEvent methods, " +
+                    "so register() will throw for it and no subscriber index is generated. " +
+                    "Either make all of them static and call register(" + type.getSimpleName() + ".class), " +
+                    "or make all of them non-static and call register() with an instance.", type);
+            return false;
+        }
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        if (!isAccessible(type, pkg)) {
+            return false;
+        }
+        for (ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            TypeMirror eventType = processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType());
+            if (!isAccessible((TypeElement) processingEnv.getTypeUtils().asElement(eventType), pkg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(TypeElement type, PackageElement from) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC) && !isSamePackage(element, from)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isSamePackage(Element element, PackageElement pkg) {
+        return processingEnv.getElementUtils().getPackageOf(element).equals(pkg);
+    }
+
+    private void writeIndex(TypeElement type, List<ExecutableElement> methods, TypeElement subscribeEvent) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        PackageElement pkg = elements.getPackageOf(type);
+        String binaryName = elements.getBinaryName(type).toString();
+        String indexName = binaryName.substring(binaryName.lastIndexOf('.') + 1) + SUFFIX;
+        String typeName = types.erasure(type.asType()).toString();
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(
+                pkg.isUnnamed() ? indexName : pkg.getQualifiedName() + "." + indexName, type).openWriter())) {
+            if (!pkg.isUnnamed()) {
+                out.println("package " + pkg.getQualifiedName() + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Generated by the bus annotation processor, do not edit.");
+            out.println(" */");
+            out.println("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })");
+            out.println("public final class " + indexName + " extends " + SUBSCRIBER_INDEX + " {");
+
+            out.println("    public " + indexName + "() {");
+            out.println("        super(");
+            for (int i = 0; i < methods.size(); i++) {
+                ExecutableElement method = methods.get(i);
+                AnnotationMirror annotation = getAnnotation(method, subscribeEvent);
+                out.println("                new Entry(\"" + method.getSimpleName() + "\", \"" + descriptor(method) + "\", "
+                        + isStatic(method) + ", " + eventType(method) + ".class, "
+                        + EVENT_PRIORITY + "." + annotationValue(annotation, "priority", "NORMAL") + ", "
+                        + annotationValue(annotation, "receiveCanceled", "false") + ", "
+                        + annotationValue(annotation, "async", "false") + ")"
+                        + (i + 1 < methods.size() ? "," : ");"));
+            }
+            out.println("    }");
+            out.println();
+
+            out.println("    @Override");
+            out.println("    public " + EVENT_LISTENER + " create(int index, Object target) {");
+            out.println("        return switch (index) {");
+            for (int i = 0; i < methods.size(); i++) {
+                out.println("            case " + i + " -> new Invoker" + i + "(" + (isStatic(methods.get(i)) ? "" : "(" + typeName + ") target") + ");");
+            }
+            out.println("            default -> throw new IndexOutOfBoundsException(index);");
+            out.println("        };");
+            out.println("    }");
+            out.println();
+
+            out.println("    @Override");
+            out.println("    public void invoke(int index, Object target, " + EVENT + " event) {");
+            out.println("        switch (index) {");
+            for (int i = 0; i < methods.size(); i++) {
+                out.println("            case " + i + " -> call" + i + "((" + typeName + ") target, event);");
+            }
+            out.println("            default -> throw new IndexOutOfBoundsException(index);");
+            out.println("        }");
+            out.println("    }");
+
+            for (int i = 0; i < methods.size(); i++) {
+                ExecutableElement method = methods.get(i);
+                String receiver = isStatic(method) ? typeName : "target";
+                out.println();
+                out.println("    private static void call" + i + "(" + typeName + " target, " + EVENT + " event) {");
+                if (method.getThrownTypes().isEmpty()) {
+                    out.println("        " + receiver + "." + method.getSimpleName() + "((" + eventType(method) + ") event);");
+                } else {
+                    out.println("        try {");
+                    out.println("            " + receiver + "." + method.getSimpleName() + "((" + eventType(method) + ") event);");
+                    out.println("        } catch (Throwable throwable) {");
+                    out.println("            throw rethrow(throwable);");
+                    out.println("        }");
+                }
+                out.println("    }");
+            }
+
+            for (int i = 0; i < methods.size(); i++) {
+                boolean isStatic = isStatic(methods.get(i));
+                out.println();
+                out.println("    private static final class Invoker" + i + " extends " + SUBSCRIBER_INDEX_LISTENER + " {");
+                if (!isStatic) {
+                    out.println("        private final " + typeName + " instance;");
+                    out.println();
+                    out.println("        private Invoker" + i + "(" + typeName + " instance) {");
+                    out.println("            this.instance = instance;");
+                    out.println("        }");
+                    out.println();
+                }
+                out.println("        @Override");
+                out.println("        public void invoke(" + EVENT + " event) {");
+                out.println("            call" + i + "(" + (isStatic ? "null" : "instance") + ", event);");
+                out.println("        }");
+                out.println("    }");
+            }
+            out.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write the subscriber index of " + type + ": " + e, type);
+        }
+    }
+
+    private static boolean isStatic(ExecutableElement method) {
+        return method.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private String eventType(ExecutableElement method) {
+        return processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType()).toString();
+    }
+
+    private static AnnotationMirror getAnnotation(ExecutableElement method, TypeElement annotationType) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().asElement().equals(annotationType)) {
+                return annotation;
+            }
+        }
+        throw new IllegalStateException(method + " is not annotated with " + annotationType);
+    }
+
+    /**
+     * {@return the source of an explicitly set boolean or enum value of the annotation, or {@code defaultValue}}
+     */
+    private static String annotationValue(AnnotationMirror annotation, String name, String defaultValue) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                Object value = entry.getValue().getValue();
+                return value instanceof VariableElement constant ? constant.getSimpleName().toString() : value.toString();
+            }
+        }
+        return defaultValue;
+    }
+
+    private String descriptor(ExecutableElement method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (VariableElement parameter : method.getParameters()) {
+            appendDescriptor(descriptor, parameter.asType());
+        }
+        descriptor.append(')');
+        appendDescriptor(descriptor, method.getReturnType());
+        return descriptor.toString();
+    }
+
+    private void appendDescriptor(StringBuilder descriptor, TypeMirror type) {
+        Types types = processingEnv.getTypeUtils();
+        type = types.erasure(type);
+        switch (type.getKind()) {
+            case BOOLEAN -> descriptor.append('Z');
+            case BYTE -> descriptor.append('B');
+            case SHORT -> descriptor.append('S');
+            case INT -> descriptor.append('I');
+            case LONG -> descriptor.append('J');
+            case CHAR -> descriptor.append('C');
+            case FLOAT -> descriptor.append('F');
+            case DOUBLE -> descriptor.append('D');
+            case VOID -> descriptor.append('V');
+            case ARRAY -> {
+                descriptor.append('[');
+                appendDescriptor(descriptor, ((ArrayType) type).getComponentType());
+            }
+            default -> {
+                var element = (TypeElement) types.asElement(type);
+                descriptor.append('L').append(processingEnv.getElementUtils().getBinaryName(element).toString().replace('.', '/')).append(';');
+            }
+        }
+    }
+}
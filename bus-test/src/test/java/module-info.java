@@ -12,6 +12,7 @@ open module net.neoforged.bus.test {
     requires static org.jetbrains.annotations;
 
     requires static net.neoforged.bus.testjars;
+    requires static net.neoforged.bus.testjars.indexed;
 
     exports net.neoforged.bus.test;
 }
\ No newline at end of file
@@ -22,6 +22,11 @@ public class TestNoLoader extends TestNoLoaderBase {
         doTest(new ParallelEventTest.Single() {});
     }
 
+    @RepeatedTest(100)
+    public void testMultipleThreadsRegisterAndPost() {
+        doTest(new ParallelEventTest.Interleaved() {});
+    }
+
     @Test
     public void testEventHandlerException() {
         doTest(new EventHandlerExceptionTest() {});
@@ -67,6 +72,11 @@ public class TestNoLoader extends TestNoLoaderBase {
         doTest(new LambdaHandlerTest.Generics() {});
     }
 
+    @Test
+    public void lambdaResolution() {
+        doTest(new LambdaHandlerTest.Resolution() {});
+    }
+
     @Disabled
     @RepeatedTest(500)
     public void deadlockTest() {
@@ -112,4 +122,109 @@ public class TestNoLoader extends TestNoLoaderBase {
     public void testAbstractEventClasses() {
         doTest(new AbstractEventClassesTest() {});
     }
+
+    @Test
+    public void testGeneratedDispatcher() {
+        doTest(new GeneratedDispatcherTest() {});
+    }
+
+    @Test
+    public void testRelinkOnRegister() {
+        doTest(new RelinkOnRegisterTest() {});
+    }
+
+    @Test
+    public void testEventPoster() {
+        doTest(new EventPosterTest() {});
+    }
+
+    @Test
+    public void testEventTypeIds() {
+        doTest(new EventTypeIdsTest() {});
+    }
+
+    @Test
+    public void testCancellationSkip() {
+        doTest(new CancellationSkipTest() {});
+    }
+
+    @Test
+    public void testHasListeners() {
+        doTest(new HasListenersTest() {});
+    }
+
+    @Test
+    public void testEventPool() {
+        doTest(new EventPoolTest() {});
+    }
+
+    @Test
+    public void testPostAll() {
+        doTest(new PostAllTest() {});
+    }
+
+    @Test
+    public void testPostAsync() {
+        doTest(new PostAsyncTest() {});
+    }
+
+    @Test
+    public void testAsyncListeners() {
+        doTest(new AsyncListenerTest() {});
+    }
+
+    @Test
+    public void testConcurrentEvent() {
+        doTest(new ConcurrentEventTest() {});
+    }
+
+    @Test
+    public void testCompositeEventBus() {
+        doTest(new CompositeEventBusTest() {});
+    }
+
+    @Test
+    public void testRegisterBatch() {
+        doTest(new RegisterBatchTest() {});
+    }
+
+    @Test
+    public void testSubscription() {
+        doTest(new SubscriptionTest() {});
+    }
+
+    @Test
+    public void testWeakListeners() {
+        doTest(new WeakListenerTest() {});
+    }
+
+    @Test
+    public void testFreeze() {
+        doTest(new FreezeTest() {});
+    }
+
+    @Test
+    public void testRepeatedRegistration() {
+        doTest(new RepeatedRegistrationTest() {});
+    }
+
+    @Test
+    public void testSubscriberIndex() {
+        doTest(new SubscriberIndexTest() {});
+    }
+
+    @Test
+    public void testConsumerListeners() {
+        doTest(new ConsumerListenerTest() {});
+    }
+
+    @Test
+    public void testRegisterAll() {
+        doTest(new RegisterAllTest() {});
+    }
+
+    @Test
+    public void testSharedListenerClasses() {
+        doTest(new SharedListenerClassTest() {});
+    }
 }
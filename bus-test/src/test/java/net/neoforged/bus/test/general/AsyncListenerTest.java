@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.ICancellableEvent;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncListenerTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        // Collect the tasks to run them by hand once post returns
+        List<Runnable> tasks = new ArrayList<>();
+        Executor executor = tasks::add;
+        List<String> calls = new ArrayList<>();
+
+        IEventBus bus = builder.get().asyncListenerExecutor(executor).build();
+        bus.register(new Listener(calls));
+        bus.addListener(TestEvent.class, e -> calls.add("sync"));
+        bus.addAsyncListener(SuperEvent.class, e -> calls.add("async-super"));
+        Consumer<TestEvent> asyncLambda = e -> calls.add("async-lambda");
+        bus.addAsyncListener(TestEvent.class, asyncLambda);
+        assertTrue(bus.hasListeners(TestEvent.class));
+
+        bus.post(new TestEvent());
+        assertEquals(List.of("sync"), calls, "Async listeners ran before post returned");
+        runAll(tasks);
+        assertEquals("sync", calls.get(0));
+        // Declared methods are registered in no particular order
+        assertEquals(Set.of("async-annotated", "async-annotated-receive"), Set.copyOf(calls.subList(1, 3)));
+        assertEquals(List.of("async-lambda", "async-super"), calls.subList(3, calls.size()));
+
+        // Listeners that don't receive canceled events are not submitted at all
+        calls.clear();
+        bus.addListener(TestEvent.class, e -> e.setCanceled(true));
+        bus.post(new TestEvent());
+        runAll(tasks);
+        assertEquals(List.of("sync", "async-annotated-receive"), calls);
+
+        // Async listeners can be unregistered like any other listener
+        calls.clear();
+        bus.unregister(asyncLambda);
+        bus.post(new SuperEvent());
+        runAll(tasks);
+        assertEquals(List.of("async-super"), calls);
+
+        // Exceptions are passed to the exception handler instead of the poster
+        AtomicInteger failedIndex = new AtomicInteger(-1);
+        IEventBus failingBus = builder.get()
+                .asyncListenerExecutor(executor)
+                .setExceptionHandler((b, event, listeners, index, throwable) -> failedIndex.set(index))
+                .build();
+        failingBus.addAsyncListener(SuperEvent.class, e -> {});
+        failingBus.addAsyncListener(SuperEvent.class, e -> {
+            throw new IllegalStateException("Failing listener");
+        });
+        failingBus.post(new SuperEvent());
+        runAll(tasks);
+        assertEquals(1, failedIndex.get(), "Exception handler received the wrong listener index");
+    }
+
+    private static void runAll(List<Runnable> tasks) {
+        List<Runnable> copy = new ArrayList<>(tasks);
+        tasks.clear();
+        copy.forEach(Runnable::run);
+    }
+
+    public static class Listener {
+        private final List<String> calls;
+
+        public Listener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent(async = true)
+        public void onEvent(TestEvent event) {
+            calls.add("async-annotated");
+        }
+
+        @SubscribeEvent(async = true, receiveCanceled = true)
+        public void onCanceledEvent(TestEvent event) {
+            calls.add("async-annotated-receive");
+        }
+    }
+
+    public static class SuperEvent extends Event implements ICancellableEvent {}
+    public static class TestEvent extends SuperEvent {}
+}
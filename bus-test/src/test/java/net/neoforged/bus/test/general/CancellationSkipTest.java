@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.ICancellableEvent;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CancellationSkipTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        checkSkipping(builder.get().build());
+        checkSkipping(builder.get().generateDispatchers(32).build());
+        checkSkipping(builder.get().allowPerPhasePost().build());
+    }
+
+    private static void checkSkipping(IEventBus bus) {
+        List<String> calls = new ArrayList<>();
+        AtomicInteger skipped = new AtomicInteger();
+
+        bus.addListener(EventPriority.HIGHEST, TestEvent.class, e -> {
+            calls.add("cancel");
+            e.setCanceled(true);
+        });
+        for (int i = 0; i < 10; ++i) {
+            bus.addListener(EventPriority.HIGH, TestEvent.class, e -> skipped.incrementAndGet());
+        }
+        bus.addListener(EventPriority.NORMAL, true, TestEvent.class, e -> {
+            calls.add("uncancel");
+            e.setCanceled(false);
+        });
+        bus.addListener(EventPriority.LOW, TestEvent.class, e -> calls.add("low"));
+        bus.addListener(EventPriority.LOWEST, TestEvent.class, e -> {
+            calls.add("cancel-again");
+            e.setCanceled(true);
+        });
+        bus.addListener(EventPriority.LOWEST, TestEvent.class, e -> skipped.incrementAndGet());
+        bus.addListener(EventPriority.LOWEST, true, TestEvent.class, e -> calls.add("lowest-receive"));
+
+        TestEvent event = bus.post(new TestEvent());
+        assertTrue(event.isCanceled());
+        assertEquals(0, skipped.get(), "Listeners not receiving canceled events were called");
+        assertEquals(List.of("cancel", "uncancel", "low", "cancel-again", "lowest-receive"), calls);
+
+        // An event canceled before posting only reaches the receiving listeners
+        calls.clear();
+        TestEvent canceled = new TestEvent();
+        canceled.setCanceled(true);
+        bus.post(canceled);
+        assertEquals(0, skipped.get());
+        assertEquals(List.of("uncancel", "low", "cancel-again", "lowest-receive"), calls);
+    }
+
+    public static class TestEvent extends Event implements ICancellableEvent {}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.CompositeEventBus;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.ICancellableEvent;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+import net.neoforged.bus.test.Whitebox;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompositeEventBusTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        IEventBus first = builder.get().build();
+        IEventBus second = builder.get().build();
+        IEventBus empty = builder.get().build();
+        IEventBus third = builder.get().startShutdown().build();
+        CompositeEventBus composite = CompositeEventBus.of(List.of(first, second, empty, third));
+        assertEquals(List.of(first, second, empty, third), composite.buses());
+
+        List<String> calls = new ArrayList<>();
+        first.addListener(EventPriority.LOW, TestEvent.class, e -> calls.add("first-low"));
+        first.addListener(EventPriority.HIGH, TestEvent.class, e -> calls.add("first-high"));
+        second.addListener(EventPriority.HIGH, SuperEvent.class, e -> calls.add("second-high-super"));
+        second.addListener(EventPriority.LOWEST, TestEvent.class, e -> e.setCanceled(true));
+        second.addListener(EventPriority.LOWEST, TestEvent.class, e -> calls.add("second-lowest"));
+        third.addListener(TestEvent.class, e -> calls.add("third"));
+
+        // Phases across all buses, then bus order within a phase
+        composite.post(new TestEvent());
+        assertEquals(List.of("first-high", "second-high-super", "first-low"), calls);
+
+        // Changes to any bus are picked up, shut down buses are skipped until started
+        calls.clear();
+        Consumer<TestEvent> emptyListener = e -> calls.add("empty-normal");
+        empty.addListener(TestEvent.class, emptyListener);
+        third.start();
+        composite.post(new TestEvent());
+        assertEquals(List.of("first-high", "second-high-super", "empty-normal", "third", "first-low"), calls);
+
+        calls.clear();
+        empty.unregister(emptyListener);
+        composite.post(new SuperEvent());
+        assertEquals(List.of("second-high-super"), calls);
+
+        // Exceptions are reported to the bus owning the failing listener
+        AtomicReference<IEventBus> failedBus = new AtomicReference<>();
+        IEventBus failing = builder.get()
+                .setExceptionHandler((bus, event, listeners, index, throwable) -> failedBus.set(bus))
+                .build();
+        failing.addListener(TestEvent.class, e -> {
+            throw new IllegalStateException("Failing listener");
+        });
+        CompositeEventBus failingComposite = CompositeEventBus.of(List.of(first, failing));
+        assertThrows(IllegalStateException.class, () -> failingComposite.post(new TestEvent()));
+        assertSame(failing, failedBus.get());
+
+        // Closed composites are no longer notified by their buses
+        List<Runnable> changeListeners = Whitebox.getInternalState(failing, "changeListeners");
+        assertEquals(1, changeListeners.size());
+        failingComposite.close();
+        failingComposite.close();
+        assertEquals(0, changeListeners.size());
+        assertThrows(IllegalStateException.class, () -> failingComposite.post(new TestEvent()));
+
+        // Neither are collected composites, which the buses don't keep alive
+        WeakReference<CompositeEventBus> collected = new WeakReference<>(CompositeEventBus.of(List.of(failing)));
+        assertEquals(1, changeListeners.size());
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!changeListeners.isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "Collected composite was not removed in time");
+            System.gc();
+            // Changes notify the collected composite, which removes it
+            Consumer<TestEvent> listener = e -> {};
+            failing.addListener(TestEvent.class, listener);
+            failing.unregister(listener);
+        }
+        assertNull(collected.get());
+    }
+
+    public static class SuperEvent extends Event implements ICancellableEvent {}
+    public static class TestEvent extends SuperEvent {}
+}
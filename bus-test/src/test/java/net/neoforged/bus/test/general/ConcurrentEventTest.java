@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.IConcurrentEvent;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentEventTest implements ITestHandler {
+    private static final int LISTENERS_PER_PHASE = 500;
+
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        IEventBus bus = builder.get().build();
+        AtomicInteger high = new AtomicInteger();
+        AtomicInteger normal = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        for (int i = 0; i < LISTENERS_PER_PHASE; ++i) {
+            bus.addListener(EventPriority.HIGH, TestEvent.class, e -> high.incrementAndGet());
+            bus.addListener(EventPriority.NORMAL, TestEvent.class, e -> {
+                // Phases are joined before the next one starts
+                if (high.get() != LISTENERS_PER_PHASE) {
+                    outOfOrder.incrementAndGet();
+                }
+                normal.incrementAndGet();
+            });
+        }
+
+        bus.post(new TestEvent());
+        assertEquals(LISTENERS_PER_PHASE, high.get());
+        assertEquals(LISTENERS_PER_PHASE, normal.get());
+        assertEquals(0, outOfOrder.get(), "Listeners of the next phase ran before the previous phase completed");
+
+        AtomicReference<EventListener> failedListener = new AtomicReference<>();
+        IEventBus failingBus = builder.get()
+                .setExceptionHandler((b, event, listeners, index, throwable) -> failedListener.set(listeners[index]))
+                .build();
+        for (int i = 0; i < LISTENERS_PER_PHASE; ++i) {
+            failingBus.addListener(TestEvent.class, e -> {});
+        }
+        failingBus.addListener(TestEvent.class, new FailingListener());
+        assertThrows(IllegalStateException.class, () -> failingBus.post(new TestEvent()));
+        assertEquals("FailingListener", String.valueOf(failedListener.get()), "Exception handler received the wrong listener");
+    }
+
+    private static class FailingListener implements Consumer<TestEvent> {
+        @Override
+        public void accept(TestEvent event) {
+            throw new IllegalStateException("Failing listener");
+        }
+
+        @Override
+        public String toString() {
+            return "FailingListener";
+        }
+    }
+
+    public static class TestEvent extends Event implements IConcurrentEvent {}
+}
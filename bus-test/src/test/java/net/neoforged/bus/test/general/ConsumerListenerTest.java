@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.ListenerList;
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.ICancellableEvent;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+import net.neoforged.bus.test.Whitebox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsumerListenerTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        IEventBus bus = builder.get().build();
+        List<String> calls = new ArrayList<>();
+
+        // Each consumer class gets its own listener class, shared by its instances
+        for (int i = 0; i < 2; i++) {
+            String name = "lambda" + i;
+            bus.addListener(EventPriority.HIGH, TestEvent.class, e -> calls.add(name));
+        }
+        Consumer<TestEvent> canceling = new Consumer<>() {
+            @Override
+            public void accept(TestEvent event) {
+                calls.add("cancel");
+                event.setCanceled(true);
+            }
+
+            @Override
+            public String toString() {
+                return "canceling";
+            }
+        };
+        bus.addListener(EventPriority.NORMAL, TestEvent.class, canceling);
+        bus.addListener(EventPriority.LOW, TestEvent.class, e -> calls.add("skipped"));
+        bus.addListener(EventPriority.LOW, true, TestEvent.class, e -> calls.add("receive"));
+
+        bus.post(new TestEvent());
+        assertEquals(List.of("lambda0", "lambda1", "cancel", "receive"), calls);
+
+        ListenerList listenerList = Whitebox.invokeMethod(bus, "getListenerList", TestEvent.class);
+        EventListener[] listeners = listenerList.getListeners();
+        assertEquals(listeners[0].getClass(), listeners[1].getClass());
+        assertNotEquals(listeners[0].getClass(), listeners[2].getClass());
+        assertEquals("canceling", listeners[2].toString());
+
+        // Listeners for non-cancellable events don't check for cancellation
+        calls.clear();
+        bus.addListener(PlainEvent.class, e -> calls.add("plain"));
+        bus.post(new PlainEvent());
+        assertEquals(List.of("plain"), calls);
+    }
+
+    public static class TestEvent extends Event implements ICancellableEvent {}
+
+    public static class PlainEvent extends Event {}
+}
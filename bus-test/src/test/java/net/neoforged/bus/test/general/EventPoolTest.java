@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPool;
+import net.neoforged.bus.api.ICancellableEvent;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventPoolTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        EventPool<PooledEvent> pool = new EventPool<>(PooledEvent::new, e -> e.value = 0);
+
+        PooledEvent first = pool.acquire();
+        // Nested acquisitions on the same thread get distinct instances
+        PooledEvent nested = pool.acquire();
+        assertNotSame(first, nested);
+
+        first.value = 5;
+        first.setCanceled(true);
+        pool.release(first);
+        assertEquals(0, first.value, "Event state was not reset");
+        assertFalse(first.isCanceled(), "Canceled state was not reset");
+        assertSame(first, pool.acquire(), "Released event was not reused");
+        pool.release(nested);
+
+        IEventBus bus = builder.get().build();
+        bus.addListener(PooledEvent.class, e -> {
+            e.value *= 2;
+            e.setCanceled(true);
+        });
+        int result = pool.post(bus, e -> e.value = 21, e -> e.value);
+        assertEquals(42, result);
+
+        // The event is released even if a listener throws
+        bus.addListener(true, PooledEvent.class, e -> {
+            throw new IllegalStateException("Failing listener");
+        });
+        assertThrows(IllegalStateException.class, () -> pool.post(bus, e -> {}, e -> e.value));
+        PooledEvent reused = pool.acquire();
+        assertEquals(0, reused.value);
+        assertFalse(reused.isCanceled());
+        pool.release(reused);
+
+        // Events reaching asynchronous listeners are not reused, since the listeners may run after the post returns
+        List<Runnable> pending = new ArrayList<>();
+        IEventBus asyncBus = builder.get().asyncListenerExecutor(pending::add).build();
+        List<Integer> seen = new ArrayList<>();
+        asyncBus.addAsyncListener(PooledEvent.class, e -> seen.add(e.value));
+        assertTrue(asyncBus.hasAsyncListeners(PooledEvent.class));
+        assertFalse(bus.hasAsyncListeners(PooledEvent.class));
+        PooledEvent pooled = pool.acquire();
+        pool.release(pooled);
+        int posted = pool.post(asyncBus, e -> e.value = 7, e -> e.value);
+        assertEquals(7, posted);
+        assertEquals(1, pending.size());
+        assertNotSame(pooled, pool.acquire(), "Event was returned to the pool before its asynchronous listeners ran");
+        pending.forEach(Runnable::run);
+        assertEquals(List.of(7), seen);
+    }
+
+    public static class PooledEvent extends Event implements ICancellableEvent {
+        int value;
+    }
+}
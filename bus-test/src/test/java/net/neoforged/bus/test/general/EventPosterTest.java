@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPoster;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventPosterTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        IEventBus bus = builder.get().startShutdown().build();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger subCalls = new AtomicInteger();
+
+        // Create the poster before any listener exists
+        EventPoster<TestEvent> poster = bus.poster(TestEvent.class);
+        Consumer<TestEvent> listener = e -> calls.incrementAndGet();
+        bus.addListener(TestEvent.class, listener);
+        bus.addListener(SubEvent.class, e -> subCalls.incrementAndGet());
+
+        poster.post(new TestEvent());
+        assertEquals(0, calls.get(), "Poster dispatched on a shut down bus");
+
+        bus.start();
+        TestEvent event = new TestEvent();
+        assertSame(event, poster.post(event));
+        assertEquals(1, calls.get());
+
+        // Subclasses are dispatched to their own listeners
+        poster.post(new SubEvent());
+        assertEquals(2, calls.get());
+        assertEquals(1, subCalls.get());
+
+        bus.unregister(listener);
+        poster.post(new TestEvent());
+        assertEquals(2, calls.get());
+
+        assertThrows(IllegalArgumentException.class, () -> bus.poster(AbstractEvent.class));
+    }
+
+    public static class TestEvent extends Event {}
+    public static class SubEvent extends TestEvent {}
+    public static abstract class AbstractEvent extends Event {}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventTypeIds;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventTypeIdsTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        int first = EventTypeIds.idOf(FirstEvent.class);
+        int second = EventTypeIds.idOf(SecondEvent.class);
+        assertNotEquals(first, second);
+        assertEquals(first, EventTypeIds.idOf(FirstEvent.class), "Ids must be stable");
+        assertTrue(first < EventTypeIds.count() && second < EventTypeIds.count());
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Class<? extends Event> notAnEvent = (Class) String.class;
+        assertThrows(IllegalArgumentException.class, () -> EventTypeIds.idOf(notAnEvent));
+
+        // Buses grow their tables for event types they see later
+        IEventBus bus = builder.get().build();
+        AtomicInteger calls = new AtomicInteger();
+        bus.addListener(FirstEvent.class, e -> calls.incrementAndGet());
+        bus.addListener(LateEvent.class, e -> calls.incrementAndGet());
+        bus.post(new LateEvent());
+        bus.post(new FirstEvent());
+        bus.post(new SecondEvent());
+        assertEquals(2, calls.get());
+    }
+
+    public static class FirstEvent extends Event {}
+    public static class SecondEvent extends Event {}
+    public static class LateEvent extends Event {}
+}
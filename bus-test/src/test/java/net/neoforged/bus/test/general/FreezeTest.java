@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPoster;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.ICancellableEvent;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.api.Subscription;
+import net.neoforged.bus.test.ITestHandler;
+import net.neoforged.bus.test.Whitebox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FreezeTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        assertThrows(IllegalStateException.class, () -> builder.get().startShutdown().build().freeze(), "Only started buses can be frozen");
+
+        IEventBus bus = builder.get().build();
+        List<String> calls = new ArrayList<>();
+        Consumer<TestEvent> consumer = e -> calls.add("normal");
+        bus.addListener(consumer);
+        bus.addListener(EventPriority.HIGH, TestEvent.class, e -> {
+            calls.add("high-cancel");
+            e.setCanceled(true);
+        });
+        bus.addListener(EventPriority.LOW, true, TestEvent.class, e -> calls.add("low-receive"));
+        bus.addListener(ParentEvent.class, e -> calls.add("parent"));
+        Subscription subscription = bus.subscribe(new Listener(calls));
+        assertThrows(IllegalStateException.class, () -> bus.registerBatch(b -> b.freeze()));
+
+        bus.freeze();
+        bus.freeze();
+
+        // Every way to change the listeners is rejected
+        assertThrows(IllegalStateException.class, () -> bus.register(new Listener(calls)));
+        assertThrows(IllegalStateException.class, () -> bus.addListener(TestEvent.class, e -> {}));
+        assertThrows(IllegalStateException.class, () -> bus.addAsyncListener(TestEvent.class, e -> {}));
+        assertThrows(IllegalStateException.class, () -> bus.subscribe(TestEvent.class, e -> {}));
+        assertThrows(IllegalStateException.class, () -> bus.registerWeak(new Listener(calls)));
+        assertThrows(IllegalStateException.class, () -> bus.registerBatch(b -> {}));
+        assertThrows(IllegalStateException.class, () -> bus.unregister(consumer));
+        assertThrows(IllegalStateException.class, subscription::close);
+
+        TestEvent event = bus.post(new TestEvent());
+        assertTrue(event.isCanceled());
+        assertEquals(List.of("high-cancel", "low-receive", "listener-receive"), calls);
+
+        calls.clear();
+        bus.post(new ParentEvent());
+        assertEquals(List.of("parent"), calls);
+
+        // Event types without a list when the bus was frozen still receive the inherited listeners
+        calls.clear();
+        bus.post(new ChildEvent());
+        assertEquals(List.of("parent"), calls);
+
+        calls.clear();
+        EventPoster<TestEvent> poster = bus.poster(TestEvent.class);
+        poster.post(new TestEvent());
+        assertEquals(List.of("high-cancel", "low-receive", "listener-receive"), calls);
+        assertSame(Whitebox.getInternalState(poster, "frozenDispatcher"), Whitebox.getInternalState(bus.poster(TestEvent.class), "frozenDispatcher"),
+                "Posters of a frozen bus should share the dispatcher built when freezing");
+
+        // The exception handler is still called with the failing listener
+        AtomicInteger failedIndex = new AtomicInteger(-1);
+        IEventBus failing = builder.get()
+                .setExceptionHandler((b, e, listeners, index, throwable) -> failedIndex.set(index))
+                .build();
+        failing.addListener(ParentEvent.class, e -> {});
+        failing.addListener(ParentEvent.class, e -> {
+            throw new IllegalStateException("Failing listener");
+        });
+        failing.freeze();
+        assertThrows(IllegalStateException.class, () -> failing.post(new ParentEvent()));
+        assertEquals(1, failedIndex.get(), "Exception handler received the wrong listener index");
+
+        // Too many listeners for a generated dispatcher to be JIT-compiled fall back to the loop dispatcher
+        IEventBus large = builder.get().build();
+        AtomicInteger received = new AtomicInteger();
+        for (int i = 0; i < 1000; i++) {
+            large.addListener(EventPriority.NORMAL, i % 2 == 0, TestEvent.class, e -> received.incrementAndGet());
+        }
+        large.addListener(EventPriority.HIGH, TestEvent.class, e -> e.setCanceled(true));
+        large.freeze();
+        EventPoster<TestEvent> largePoster = large.poster(TestEvent.class);
+        assertFalse(Whitebox.getInternalState(largePoster, "frozenDispatcher").getClass().isHidden(), "Dispatcher was generated for too many listeners");
+        largePoster.post(new TestEvent());
+        large.post(new TestEvent());
+        assertEquals(1000, received.get());
+    }
+
+    public static class Listener {
+        private final List<String> calls;
+
+        public Listener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent(priority = EventPriority.LOWEST, receiveCanceled = true)
+        public void onEvent(TestEvent event) {
+            calls.add("listener-receive");
+        }
+    }
+
+    public static class ParentEvent extends Event {}
+
+    public static class ChildEvent extends ParentEvent {}
+
+    public static class TestEvent extends Event implements ICancellableEvent {}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.ListenerList;
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.ICancellableEvent;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.test.ITestHandler;
+import net.neoforged.bus.test.Whitebox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeneratedDispatcherTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        // Below the threshold the generated dispatcher is used, above it the array loop
+        checkDispatch(builder.get().generateDispatchers(16).build(), true);
+        checkDispatch(builder.get().generateDispatchers(2).build(), false);
+
+        AtomicInteger failedIndex = new AtomicInteger(-1);
+        IEventBus bus = builder.get()
+                .generateDispatchers(16)
+                .setExceptionHandler((b, event, listeners, index, throwable) -> failedIndex.set(index))
+                .build();
+        bus.addListener(TestEvent.class, e -> {});
+        bus.addListener(TestEvent.class, e -> {
+            throw new IllegalStateException("Failing listener");
+        });
+        assertThrows(IllegalStateException.class, () -> bus.post(new TestEvent()));
+        assertEquals(1, failedIndex.get(), "Exception handler received the wrong listener index");
+
+        assertThrows(IllegalArgumentException.class, () -> builder.get().generateDispatchers(-1));
+        // Larger dispatchers would be too large to be JIT-compiled
+        assertDoesNotThrow(() -> builder.get().generateDispatchers(332));
+        assertThrows(IllegalArgumentException.class, () -> builder.get().generateDispatchers(333));
+    }
+
+    private static void checkDispatch(IEventBus bus, boolean generated) {
+        List<String> calls = new ArrayList<>();
+        bus.addListener(EventPriority.LOW, TestEvent.class, e -> calls.add("low"));
+        bus.addListener(EventPriority.HIGHEST, TestEvent.class, e -> calls.add("highest"));
+        bus.addListener(EventPriority.HIGH, true, TestEvent.class, e -> calls.add("high-receive"));
+        bus.addListener(EventPriority.HIGH, TestEvent.class, e -> {
+            calls.add("high-cancel");
+            e.setCanceled(true);
+        });
+        bus.register(new Listener(calls));
+
+        TestEvent event = bus.post(new TestEvent());
+        assertTrue(event.isCanceled());
+        assertEquals(List.of("highest", "high-receive", "high-cancel", "normal-receive"), calls);
+        ListenerList listenerList = Whitebox.invokeMethod(bus, "getListenerList", TestEvent.class);
+        Object dispatcher = Whitebox.invokeMethod(listenerList, "getDispatcher");
+        assertEquals(generated, dispatcher.getClass().isHidden(), "Unexpected dispatcher " + dispatcher.getClass());
+
+        // Adding a listener after posting must be picked up
+        calls.clear();
+        bus.addListener(EventPriority.LOWEST, true, TestEvent.class, e -> calls.add("lowest-receive"));
+        bus.post(new TestEvent());
+        assertEquals(List.of("highest", "high-receive", "high-cancel", "normal-receive", "lowest-receive"), calls);
+    }
+
+    public static class Listener {
+        private final List<String> calls;
+
+        public Listener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent
+        public void onEvent(TestEvent event) {
+            calls.add("normal");
+        }
+
+        @SubscribeEvent(receiveCanceled = true)
+        public void onCanceledEvent(TestEvent event) {
+            calls.add("normal-receive");
+        }
+    }
+
+    public static class TestEvent extends Event implements ICancellableEvent {}
+}
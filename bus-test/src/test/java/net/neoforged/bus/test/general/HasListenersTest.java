@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HasListenersTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        IEventBus bus = builder.get().build();
+        AtomicInteger created = new AtomicInteger();
+        Supplier<SubEvent> factory = () -> {
+            created.incrementAndGet();
+            return new SubEvent();
+        };
+
+        assertFalse(bus.hasListeners(SubEvent.class));
+        assertNull(bus.post(SubEvent.class, factory));
+        assertEquals(0, created.get(), "Event was created without listeners");
+
+        // Listeners of the parent count for the subclass
+        Consumer<SuperEvent> listener = e -> {};
+        bus.addListener(SuperEvent.class, listener);
+        assertTrue(bus.hasListeners(SuperEvent.class));
+        assertTrue(bus.hasListeners(SubEvent.class));
+        assertFalse(bus.hasListeners(OtherEvent.class));
+        assertNotNull(bus.post(SubEvent.class, factory));
+        assertEquals(1, created.get());
+
+        // The factory must create events of the exact type, whose listeners were checked
+        assertThrows(IllegalArgumentException.class, () -> bus.post(SuperEvent.class, SubEvent::new));
+
+        bus.unregister(listener);
+        assertFalse(bus.hasListeners(SubEvent.class));
+        assertNull(bus.post(SubEvent.class, factory));
+        assertEquals(1, created.get());
+
+        // Shut down buses don't need the event either
+        IEventBus shutdownBus = builder.get().startShutdown().build();
+        shutdownBus.addListener(SubEvent.class, e -> {});
+        assertNull(shutdownBus.post(SubEvent.class, factory));
+        assertEquals(1, created.get());
+    }
+
+    public static class SuperEvent extends Event {}
+    public static class SubEvent extends SuperEvent {}
+    public static class OtherEvent extends Event {}
+}
@@ -11,6 +11,10 @@ import net.neoforged.bus.api.Event;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.test.ITestHandler;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -84,6 +88,36 @@ public abstract class LambdaHandlerTest implements ITestHandler {
         }
     }
 
+    public static class Resolution extends LambdaHandlerTest {
+        @Override
+        public void test(Supplier<BusBuilder> builder) {
+            IEventBus bus = builder.get().build();
+            List<String> calls = new ArrayList<>();
+
+            // Classes declaring their event type
+            bus.addListener(new Consumer<SubEvent>() {
+                @Override
+                public void accept(SubEvent event) {
+                    calls.add("anonymous");
+                }
+            });
+            // Serializable lambdas
+            bus.addListener((SerializableConsumer<SubEvent>) e -> calls.add("serializable"));
+            // The same lambda class several times, resolved once
+            for (int i = 0; i < 3; i++) {
+                String name = "lambda" + i;
+                bus.addListener((SubEvent e) -> calls.add(name));
+            }
+
+            bus.post(new BaseEvent());
+            assertEquals(List.of(), calls);
+            bus.post(new SubEvent());
+            assertEquals(List.of("anonymous", "serializable", "lambda0", "lambda1", "lambda2"), calls);
+        }
+    }
+
+    public interface SerializableConsumer<T> extends Consumer<T>, Serializable {}
+
     public <T extends Event & ICancellableEvent> void registerSomeGodDamnWrapper(IEventBus bus, Class<T> tClass, Function<T, Boolean> func) {
         bus.addListener(tClass, (T event) -> {
             if (func.apply(event)) {
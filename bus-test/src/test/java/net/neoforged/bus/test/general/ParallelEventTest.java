@@ -7,6 +7,7 @@ package net.neoforged.bus.test.general;
 
 import net.neoforged.bus.ListenerList;
 import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.test.ITestHandler;
 import net.neoforged.bus.test.Whitebox;
@@ -17,6 +18,7 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 public abstract class ParallelEventTest implements ITestHandler {
     private static final int BUS_COUNT = 16;
@@ -85,4 +87,32 @@ public abstract class ParallelEventTest implements ITestHandler {
             assertEquals(COUNTER.get(), LISTENER_COUNT * RUN_ITERATIONS);
         }
     }
+
+    public static class Interleaved extends ParallelEventTest {
+        @Override
+        public void test(Supplier<BusBuilder> builder) {
+            IEventBus bus = builder.get().build();
+
+            // Register to a parent and a child event while other threads keep posting the child event
+            IntStream.range(0, LISTENER_COUNT).parallel().forEach(i -> {
+                if (i % 2 == 0) {
+                    bus.addListener(ParentEvent.class, e -> COUNTER.incrementAndGet());
+                } else {
+                    bus.addListener(ChildEvent.class, e -> COUNTER.incrementAndGet());
+                }
+                bus.post(new ChildEvent());
+            });
+
+            // No registration may get lost, neither in the parent list nor propagated to the child list
+            ListenerList afterAdd = Whitebox.invokeMethod(bus, "getListenerList", ChildEvent.class);
+            assertEquals(LISTENER_COUNT, afterAdd.getListeners().length, "Failed to register all event handlers");
+
+            COUNTER.set(0);
+            bus.post(new ChildEvent());
+            assertEquals(LISTENER_COUNT, COUNTER.get());
+        }
+
+        public static class ParentEvent extends Event {}
+        public static class ChildEvent extends ParentEvent {}
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.ICancellableEvent;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostAllTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        IEventBus bus = builder.get().build();
+        List<String> calls = new ArrayList<>();
+        bus.addListener(EventPriority.HIGH, TestEvent.class, e -> {
+            calls.add("high" + e.id);
+            e.setCanceled(e.id == 1);
+        });
+        bus.addListener(EventPriority.LOW, TestEvent.class, e -> calls.add("low" + e.id));
+        bus.addListener(EventPriority.LOWEST, true, TestEvent.class, e -> calls.add("lowest" + e.id));
+
+        // Each listener sees the whole batch, canceled events are only seen by listeners receiving them
+        List<TestEvent> events = List.of(new TestEvent(0), new TestEvent(1), new TestEvent(2));
+        bus.postAll(TestEvent.class, events);
+        assertEquals(List.of("high0", "high1", "high2", "low0", "low2", "lowest0", "lowest1", "lowest2"), calls);
+        assertFalse(events.get(0).isCanceled());
+        assertTrue(events.get(1).isCanceled());
+
+        calls.clear();
+        bus.postAll(TestEvent.class, new LinkedList<>(List.of(new TestEvent(3))));
+        assertEquals(List.of("high3", "low3", "lowest3"), calls);
+
+        // Subclasses have their own listeners, so their events are posted one by one after the batch
+        calls.clear();
+        bus.addListener(SubEvent.class, e -> calls.add("sub" + e.id));
+        bus.postAll(TestEvent.class, List.of(new TestEvent(4), new SubEvent(5), new TestEvent(6)));
+        assertEquals(List.of("high4", "high6", "low4", "low6", "lowest4", "lowest6", "high5", "sub5", "low5", "lowest5"), calls);
+
+        AtomicInteger failedIndex = new AtomicInteger(-1);
+        IEventBus failingBus = builder.get()
+                .setExceptionHandler((b, event, listeners, index, throwable) -> failedIndex.set(index))
+                .build();
+        failingBus.addListener(TestEvent.class, e -> {});
+        failingBus.addListener(TestEvent.class, e -> {
+            if (e.id == 1) {
+                throw new IllegalStateException("Failing listener");
+            }
+        });
+        assertThrows(IllegalStateException.class, () -> failingBus.postAll(TestEvent.class, List.of(new TestEvent(0), new TestEvent(1))));
+        assertEquals(1, failedIndex.get(), "Exception handler received the wrong listener index");
+
+        IEventBus shutdownBus = builder.get().startShutdown().build();
+        shutdownBus.addListener(TestEvent.class, e -> fail("Shut down bus dispatched a batch"));
+        shutdownBus.postAll(TestEvent.class, List.of(new TestEvent(0)));
+    }
+
+    public static class TestEvent extends Event implements ICancellableEvent {
+        final int id;
+
+        public TestEvent(int id) {
+            this.id = id;
+        }
+    }
+
+    public static class SubEvent extends TestEvent {
+        public SubEvent(int id) {
+            super(id);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostAsyncTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "PostAsyncTest"));
+        try {
+            IEventBus bus = builder.get().build();
+            List<String> calls = new ArrayList<>();
+            bus.addListener(EventPriority.LOW, TestEvent.class, e -> calls.add("low"));
+            bus.addListener(EventPriority.HIGH, TestEvent.class, e -> calls.add("high:" + Thread.currentThread().getName()));
+
+            TestEvent event = new TestEvent();
+            assertSame(event, bus.postAsync(event, executor).get(10, TimeUnit.SECONDS));
+            assertEquals(List.of("high:PostAsyncTest", "low"), calls);
+
+            AtomicInteger failedIndex = new AtomicInteger(-1);
+            IEventBus failingBus = builder.get()
+                    .setExceptionHandler((b, e, listeners, index, throwable) -> failedIndex.set(index))
+                    .build();
+            failingBus.addListener(TestEvent.class, e -> {});
+            failingBus.addListener(TestEvent.class, e -> {
+                throw new IllegalStateException("Failing listener");
+            });
+            CompletableFuture<TestEvent> failed = failingBus.postAsync(new TestEvent(), executor);
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+            assertEquals(1, failedIndex.get(), "Exception handler received the wrong listener index");
+
+            IEventBus shutdownBus = builder.get().startShutdown().build();
+            shutdownBus.addListener(TestEvent.class, e -> fail("Shut down bus dispatched an event"));
+            CompletableFuture<TestEvent> skipped = shutdownBus.postAsync(new TestEvent(), executor);
+            assertTrue(skipped.isDone());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static class TestEvent extends Event {}
+}
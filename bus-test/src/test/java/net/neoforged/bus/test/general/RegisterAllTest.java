@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegisterAllTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            test(builder, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void test(Supplier<BusBuilder> builder, ExecutorService executor) {
+        IEventBus bus = builder.get().build();
+        List<Integer> calls = new ArrayList<>();
+
+        // Listeners are registered in the order of the collection, whichever finished preparing first
+        List<Object> targets = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            targets.add(new Listener(i, calls));
+        }
+        targets.add(targets.get(0));
+        targets.add(StaticListener.class);
+        StaticListener.calls = calls;
+        bus.registerAll(targets, executor);
+        bus.post(new TestEvent());
+        assertEquals(201, calls.size(), "Each target should be registered once");
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, calls.get(i));
+        }
+        assertEquals(-1, calls.get(200));
+
+        // Registering again does nothing
+        calls.clear();
+        bus.registerAll(targets, executor);
+        bus.post(new TestEvent());
+        assertEquals(201, calls.size());
+
+        // The targets before an invalid one stay registered, the ones after it are not registered
+        IEventBus other = builder.get().build();
+        calls.clear();
+        var invalid = List.of(new Listener(0, calls), new InvalidListener(), new Listener(1, calls));
+        assertThrows(IllegalArgumentException.class, () -> other.registerAll(invalid, executor));
+        other.post(new TestEvent());
+        assertEquals(List.of(0), calls);
+
+        other.start();
+        other.freeze();
+        assertThrows(IllegalStateException.class, () -> other.registerAll(List.of(new Listener(2, calls)), executor));
+    }
+
+    public static class Listener {
+        private final int id;
+        private final List<Integer> calls;
+
+        public Listener(int id, List<Integer> calls) {
+            this.id = id;
+            this.calls = calls;
+        }
+
+        @SubscribeEvent
+        public void onEvent(TestEvent event) {
+            calls.add(id);
+        }
+    }
+
+    public static class StaticListener {
+        private static List<Integer> calls;
+
+        @SubscribeEvent
+        public static void onEvent(TestEvent event) {
+            calls.add(-1);
+        }
+    }
+
+    public static class InvalidListener {
+        @SubscribeEvent
+        public void onEvent(TestEvent event, Object extra) {}
+    }
+
+    public static class TestEvent extends Event {}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegisterBatchTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        IEventBus bus = builder.get().build();
+        List<String> calls = new ArrayList<>();
+        bus.addListener(EventPriority.HIGH, ChildEvent.class, e -> calls.add("existing"));
+
+        Consumer<ChildEvent> removed = e -> calls.add("removed");
+        bus.registerBatch(batch -> {
+            batch.addListener(EventPriority.LOW, ChildEvent.class, e -> calls.add("child-low"));
+            batch.addListener(ParentEvent.class, e -> calls.add("parent"));
+            batch.register(new Listener(calls));
+            batch.addListener(ChildEvent.class, removed);
+            batch.registerBatch(nested -> nested.addListener(EventPriority.HIGHEST, ChildEvent.class, e -> calls.add("nested")));
+
+            // Listeners only take effect once the batch completes
+            batch.post(new ChildEvent());
+            assertEquals(List.of("existing"), calls);
+            batch.unregister(removed);
+        });
+
+        calls.clear();
+        bus.post(new ChildEvent());
+        assertEquals(List.of("nested", "existing", "listener", "parent", "child-low"), calls);
+
+        // Listeners registered before a failure are kept
+        calls.clear();
+        assertThrows(IllegalStateException.class, () -> bus.registerBatch(batch -> {
+            batch.addListener(EventPriority.LOWEST, ChildEvent.class, e -> calls.add("before-failure"));
+            throw new IllegalStateException("Failing batch");
+        }));
+        bus.post(new ChildEvent());
+        assertEquals(List.of("nested", "existing", "listener", "parent", "child-low", "before-failure"), calls);
+    }
+
+    public static class Listener {
+        private final List<String> calls;
+
+        public Listener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent
+        public void onEvent(ChildEvent event) {
+            calls.add("listener");
+        }
+    }
+
+    public static class ParentEvent extends Event {}
+    public static class ChildEvent extends ParentEvent {}
+}
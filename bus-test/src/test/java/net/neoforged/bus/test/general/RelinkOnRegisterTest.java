@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPoster;
+import net.neoforged.bus.api.ICancellableEvent;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelinkOnRegisterTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        checkRelinking(builder.get().relinkOnRegister().build());
+        checkRelinking(builder.get().relinkOnRegister().generateDispatchers(8).build());
+    }
+
+    private static void checkRelinking(IEventBus bus) {
+        AtomicInteger subCalls = new AtomicInteger();
+        AtomicInteger superCalls = new AtomicInteger();
+
+        // Posters dispatch through a call site generated for their event type
+        EventPoster<SubEvent> poster = bus.poster(SubEvent.class);
+        assertTrue(poster.getClass().isHidden(), "Relinking buses should generate their posters");
+        assertSame(poster, bus.poster(SubEvent.class), "Posters should be generated once per listener list");
+        poster.post(new SubEvent());
+        bus.post(new SubEvent());
+        bus.addListener(SubEvent.class, e -> subCalls.incrementAndGet());
+        bus.post(new SubEvent());
+        assertEquals(1, subCalls.get());
+
+        // Registering to the parent must relink the already existing child
+        Consumer<SuperEvent> superListener = e -> superCalls.incrementAndGet();
+        bus.addListener(SuperEvent.class, superListener);
+        bus.post(new SubEvent());
+        assertEquals(2, subCalls.get());
+        assertEquals(1, superCalls.get());
+        poster.post(new SubEvent());
+        assertEquals(3, subCalls.get());
+        assertEquals(2, superCalls.get());
+
+        bus.unregister(superListener);
+        bus.post(new SubEvent());
+        assertEquals(4, subCalls.get());
+        assertEquals(2, superCalls.get());
+        poster.post(new SubEvent());
+        assertEquals(5, subCalls.get());
+        assertEquals(2, superCalls.get());
+
+        // Canceled events still go through the relinked cancellation checks
+        SubEvent canceled = new SubEvent();
+        canceled.setCanceled(true);
+        bus.post(canceled);
+        poster.post(canceled);
+        assertEquals(5, subCalls.get());
+
+        // Events of subclasses are posted to their own listeners
+        AtomicInteger childCalls = new AtomicInteger();
+        bus.addListener(ChildEvent.class, e -> childCalls.incrementAndGet());
+        poster.post(new ChildEvent());
+        assertEquals(1, childCalls.get());
+        assertEquals(6, subCalls.get());
+    }
+
+    public static class SuperEvent extends Event implements ICancellableEvent {}
+    public static class SubEvent extends SuperEvent {}
+    public static class ChildEvent extends SubEvent {}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RepeatedRegistrationTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        IEventBus bus = builder.get().build();
+        List<Integer> calls = new ArrayList<>();
+
+        // Instances of the same class share their metadata, but each listener is bound to its own instance
+        List<Listener> listeners = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Listener listener = new Listener(i, calls);
+            listeners.add(listener);
+            bus.register(listener);
+        }
+        bus.post(new TestEvent());
+        assertEquals(100, calls.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, calls.get(i));
+        }
+
+        calls.clear();
+        bus.unregister(listeners.get(0));
+        bus.post(new TestEvent());
+        assertEquals(99, calls.size());
+        assertFalse(calls.contains(0));
+
+        // Invalid classes keep failing, not only on their first registration
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalArgumentException.class, () -> bus.register(new InvalidListener()));
+            assertThrows(IllegalArgumentException.class, () -> bus.register(new SubListener(0, calls)));
+        }
+    }
+
+    public static class Listener {
+        private final int id;
+        private final List<Integer> calls;
+
+        public Listener(int id, List<Integer> calls) {
+            this.id = id;
+            this.calls = calls;
+        }
+
+        @SubscribeEvent
+        public void onEvent(TestEvent event) {
+            calls.add(id);
+        }
+    }
+
+    public static class SubListener extends Listener {
+        public SubListener(int id, List<Integer> calls) {
+            super(id, calls);
+        }
+
+        @SubscribeEvent
+        public void onOtherEvent(TestEvent event) {}
+    }
+
+    public static class InvalidListener {
+        @SubscribeEvent
+        public void onEvent(TestEvent event, Object extra) {}
+    }
+
+    public static class TestEvent extends Event {}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.IWrapperListener;
+import net.neoforged.bus.ListenerList;
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.test.ITestHandler;
+import net.neoforged.bus.test.Whitebox;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedListenerClassTest implements ITestHandler {
+    private static final String PROPERTY = "eventbus.sharedListenerClasses";
+
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        // The property is read when a class is first registered, the classes below are not registered by other tests
+        System.setProperty(PROPERTY, "true");
+        try {
+            test(builder.get().build());
+        } finally {
+            System.clearProperty(PROPERTY);
+        }
+    }
+
+    private void test(IEventBus bus) {
+        List<String> calls = new ArrayList<>();
+        Listener first = new Listener("first", calls);
+        Listener second = new Listener("second", calls);
+        StaticListener.calls = calls;
+        bus.register(first);
+        bus.register(second);
+        bus.register(StaticListener.class);
+
+        bus.post(new TestEvent());
+        assertEquals(List.of("first.high", "second.high", "first.normal", "second.normal", "static"), calls);
+
+        // All the methods of a class, static or not, are invoked through a single generated class
+        ListenerList listenerList = Whitebox.invokeMethod(bus, "getListenerList", TestEvent.class);
+        Set<Class<?>> handlerClasses = new HashSet<>();
+        for (EventListener listener : listenerList.getListeners()) {
+            EventListener handler = listener instanceof IWrapperListener wrapper ? wrapper.getWithoutCheck() : listener;
+            assertTrue(handler.getClass().isHidden(), handler + " should be generated");
+            handlerClasses.add(handler.getClass());
+        }
+        assertEquals(2, handlerClasses.size());
+
+        calls.clear();
+        bus.unregister(first);
+        bus.post(new TestEvent());
+        assertEquals(List.of("second.high", "second.normal", "static"), calls);
+
+        assertThrows(IllegalStateException.class, () -> bus.post(new ThrowingEvent()));
+    }
+
+    public static class Listener {
+        private final String name;
+        private final List<String> calls;
+
+        public Listener(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @SubscribeEvent(priority = EventPriority.HIGH)
+        public void onHigh(TestEvent event) {
+            calls.add(name + ".high");
+        }
+
+        @SubscribeEvent
+        public void onNormal(TestEvent event) {
+            calls.add(name + ".normal");
+        }
+
+        @SubscribeEvent
+        public void onThrowing(ThrowingEvent event) throws Exception {
+            throw new IllegalStateException(name);
+        }
+    }
+
+    public static class StaticListener {
+        private static List<String> calls;
+
+        @SubscribeEvent
+        public static void onEvent(TestEvent event) {
+            calls.add("static");
+        }
+    }
+
+    public static class TestEvent extends Event {}
+
+    public static class ThrowingEvent extends Event {}
+}
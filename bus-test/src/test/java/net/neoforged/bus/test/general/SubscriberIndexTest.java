@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.ListenerList;
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscriberIndex;
+import net.neoforged.bus.test.ITestHandler;
+import net.neoforged.bus.test.Whitebox;
+import net.neoforged.bus.testjar.DummyEvent;
+import net.neoforged.bus.testjar.EventBusTestClass;
+import net.neoforged.bus.testjar.indexed.IndexedTestClass;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubscriberIndexTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        // Only the indexed test jar is compiled with the annotation processor
+        assertThrows(ClassNotFoundException.class, () -> Class.forName(EventBusTestClass.class.getName() + SubscriberIndex.SUFFIX));
+        Class<?> indexClass = assertDoesNotThrow(() -> Class.forName(IndexedTestClass.class.getName() + SubscriberIndex.SUFFIX));
+        assertTrue(SubscriberIndex.class.isAssignableFrom(indexClass));
+
+        IEventBus bus = builder.get().build();
+        var listener = new IndexedTestClass();
+        bus.register(listener);
+        bus.post(new DummyEvent.GoodEvent());
+        assertTrue(listener.HIT1);
+        assertTrue(listener.HIT2);
+
+        // Indexed listeners are created by the index, not generated at runtime
+        ListenerList listenerList = Whitebox.invokeMethod(bus, "getListenerList", DummyEvent.GoodEvent.class);
+        EventListener[] listeners = listenerList.getListeners();
+        assertEquals(2, listeners.length);
+        for (EventListener eventListener : listeners) {
+            assertFalse(eventListener.getClass().isHidden(), eventListener + " was generated at runtime");
+            assertEquals(indexClass, eventListener.getClass().getNestHost());
+            assertInstanceOf(SubscriberIndex.Listener.class, eventListener);
+        }
+
+        assertThrows(RuntimeException.class, () -> bus.post(new DummyEvent.BadEvent()));
+
+        // The sealed listener hierarchy is only opened to generated indexes
+        assertThrows(IllegalStateException.class, () -> new SubscriberIndex.Listener() {
+            @Override
+            public void invoke(Event event) {}
+        });
+
+        bus.unregister(listener);
+        assertFalse(bus.hasListeners(DummyEvent.GoodEvent.class));
+    }
+}
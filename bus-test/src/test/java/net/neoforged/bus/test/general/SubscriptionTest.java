@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.api.Subscription;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubscriptionTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        IEventBus bus = builder.get().build();
+        List<String> calls = new ArrayList<>();
+
+        Subscription lambda = bus.subscribe(TestEvent.class, e -> calls.add("lambda"));
+        Subscription high = bus.subscribe(EventPriority.HIGH, false, TestEvent.class, e -> calls.add("high"));
+        Listener target = new Listener(calls);
+        Subscription first = bus.subscribe(target);
+        Subscription second = bus.subscribe(target);
+
+        bus.post(new TestEvent());
+        assertEquals(List.of("high", "lambda", "listener", "listener"), calls);
+
+        // Subscriptions are not tracked by their target
+        calls.clear();
+        bus.unregister(target);
+        first.close();
+        first.close();
+        lambda.close();
+        bus.post(new TestEvent());
+        assertEquals(List.of("high", "listener"), calls);
+
+        calls.clear();
+        try (high; second) {
+            bus.post(new TestEvent());
+        }
+        bus.post(new TestEvent());
+        assertEquals(List.of("high", "listener"), calls);
+        assertFalse(bus.hasListeners(TestEvent.class));
+
+        // Targets whose hashCode changes after registration
+        MutableHashListener mutable = new MutableHashListener(calls);
+        Subscription mutableSubscription = bus.subscribe(mutable);
+        mutable.hash++;
+        calls.clear();
+        bus.post(new TestEvent());
+        mutableSubscription.close();
+        bus.post(new TestEvent());
+        assertEquals(List.of("mutable"), calls);
+
+        // Listeners registered before the invalid method are unregistered
+        assertThrows(IllegalArgumentException.class, () -> bus.subscribe(new PartiallyValidListener()));
+        assertFalse(bus.hasListeners(TestEvent.class));
+    }
+
+    public static class Listener {
+        private final List<String> calls;
+
+        public Listener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent
+        public void onEvent(TestEvent event) {
+            calls.add("listener");
+        }
+    }
+
+    public static class MutableHashListener {
+        private final List<String> calls;
+        private int hash;
+
+        public MutableHashListener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent
+        public void onEvent(TestEvent event) {
+            calls.add("mutable");
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof MutableHashListener other && other.hash == hash;
+        }
+    }
+
+    public static class PartiallyValidListener {
+        @SubscribeEvent
+        public void onEvent(TestEvent event) {}
+
+        @SubscribeEvent
+        public static void onStaticEvent(TestEvent event) {}
+    }
+
+    public static class TestEvent extends Event {}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.test.general;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.api.Subscription;
+import net.neoforged.bus.test.ITestHandler;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeakListenerTest implements ITestHandler {
+    @Override
+    public void test(Supplier<BusBuilder> builder) {
+        IEventBus bus = builder.get().build();
+        List<String> calls = new ArrayList<>();
+
+        assertThrows(IllegalArgumentException.class, () -> bus.registerWeak(Listener.class));
+        // Listeners registered before the invalid method are unregistered
+        assertThrows(IllegalArgumentException.class, () -> bus.registerWeak(new PartiallyValidListener()));
+        assertFalse(bus.hasListeners(TestEvent.class));
+
+        // Closing a weak subscription unregisters it like any other
+        Listener kept = new Listener(calls);
+        Subscription subscription = bus.registerWeak(kept);
+        bus.post(new TestEvent());
+        assertEquals(List.of("listener"), calls);
+        subscription.close();
+        calls.clear();
+        bus.post(new TestEvent());
+        assertEquals(List.of(), calls);
+        assertFalse(bus.hasListeners(TestEvent.class));
+
+        // Collected targets are unregistered without closing their subscription
+        WeakReference<Listener> listener = registerCollectable(bus, calls);
+        assertEquals(List.of("listener", "owner"), calls);
+        awaitCollection(bus, listener);
+        calls.clear();
+        bus.post(new TestEvent());
+        assertEquals(List.of(), calls);
+        assertFalse(bus.hasListeners(TestEvent.class), "Collected listeners were not unregistered");
+    }
+
+    private static WeakReference<Listener> registerCollectable(IEventBus bus, List<String> calls) {
+        Listener listener = new Listener(calls);
+        bus.registerWeak(listener);
+        bus.addWeakListener(TestEvent.class, listener, (owner, event) -> owner.calls.add("owner"));
+        bus.post(new TestEvent());
+        return new WeakReference<>(listener);
+    }
+
+    private static void awaitCollection(IEventBus bus, WeakReference<?> reference) {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (bus.hasListeners(TestEvent.class)) {
+            assertTrue(System.nanoTime() < deadline, "Weak listeners were not cleaned up in time");
+            System.gc();
+            // Posting drains the collected targets
+            bus.post(new TestEvent());
+        }
+        assertNull(reference.get());
+    }
+
+    public static class Listener {
+        private final List<String> calls;
+
+        public Listener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent
+        public void onEvent(TestEvent event) {
+            calls.add("listener");
+        }
+    }
+
+    public static class PartiallyValidListener {
+        @SubscribeEvent
+        public void onEvent(TestEvent event) {}
+
+        @SubscribeEvent
+        public static void onStaticEvent(TestEvent event) {}
+    }
+
+    public static class TestEvent extends Event {}
+}
@@ -0,0 +1,12 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+open module net.neoforged.bus.testjars.indexed {
+    requires net.neoforged.bus;
+    requires net.neoforged.bus.testjars;
+
+    exports net.neoforged.bus.testjar.indexed;
+    exports net.neoforged.bus.benchmarks.compiled.indexed;
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.benchmarks.compiled.indexed;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.benchmarks.compiled.CancellableEvent;
+import net.neoforged.bus.benchmarks.compiled.EventWithData;
+
+/**
+ * Same as the static and dynamic buses of {@code BenchmarkArmsLength}, with listeners created by their subscriber index.
+ */
+public class BenchmarkIndexed
+{
+    public record Bus(
+        IEventBus staticSubscriberBus,
+        IEventBus dynamicSubscriberBus
+    ) {
+        public Bus register() {
+            staticSubscriberBus.register(IndexedSubscriberStatic.class);
+            dynamicSubscriberBus.register(new IndexedSubscriberDynamic());
+            return this;
+        }
+    }
+
+    public static Bus NoLoader = new Bus(
+        BusBuilder.builder().build(),
+        BusBuilder.builder().build()
+    ).register();
+
+    public static void postStatic(Bus bus)
+    {
+        postAll(bus.staticSubscriberBus);
+    }
+
+    public static void postDynamic(Bus bus)
+    {
+        postAll(bus.dynamicSubscriberBus);
+    }
+
+    private static void postAll(IEventBus bus)
+    {
+        bus.post(new CancellableEvent());
+        bus.post(new EventWithData("Foo", 5, true)); //Some example data
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.benchmarks.compiled.indexed;
+
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.benchmarks.compiled.CancellableEvent;
+import net.neoforged.bus.benchmarks.compiled.EventWithData;
+
+public class IndexedSubscriberDynamic
+{
+    @SubscribeEvent
+    public void onCancellableEvent(CancellableEvent event)
+    {
+
+    }
+
+    @SubscribeEvent
+    public void onSimpleEvent(EventWithData event)
+    {
+
+    }
+}
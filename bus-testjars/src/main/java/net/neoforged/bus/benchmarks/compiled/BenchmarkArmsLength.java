@@ -36,6 +36,13 @@ public class BenchmarkArmsLength
         BusBuilder.builder().build()
     ).register();
 
+    public static Bus GeneratedDispatchers = new Bus(
+        BusBuilder.builder().generateDispatchers(16).build(),
+        BusBuilder.builder().generateDispatchers(16).build(),
+        BusBuilder.builder().generateDispatchers(16).build(),
+        BusBuilder.builder().generateDispatchers(16).build()
+    ).register();
+
     public static final Consumer<Object> postStatic = BenchmarkArmsLength::postStatic;
     public static final Consumer<Object> postDynamic = BenchmarkArmsLength::postDynamic;
     public static final Consumer<Object> postLambda = BenchmarkArmsLength::postLambda;
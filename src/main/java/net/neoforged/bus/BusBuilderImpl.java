@@ -5,6 +5,9 @@
 
 package net.neoforged.bus;
 
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import net.neoforged.bus.api.BusBuilder;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.api.IEventClassChecker;
@@ -21,6 +24,9 @@ public final class BusBuilderImpl implements BusBuilder {
     boolean checkTypesOnDispatch = false;
     IEventClassChecker classChecker = eventClass -> {};
     boolean allowPerPhasePost = false;
+    int maxGeneratedDispatcherSize = 0;
+    boolean relinkOnRegister = false;
+    Executor asyncListenerExecutor = ForkJoinPool.commonPool();
 
     @Override
     public BusBuilder setExceptionHandler(IEventExceptionHandler handler) {
@@ -52,6 +58,27 @@ public final class BusBuilderImpl implements BusBuilder {
         return this;
     }
 
+    @Override
+    public BusBuilder generateDispatchers(int maxListeners) {
+        if (maxListeners < 0 || maxListeners > EventDispatcherFactory.MAX_LISTENERS) {
+            throw new IllegalArgumentException("maxListeners must be between 0 and " + EventDispatcherFactory.MAX_LISTENERS + ", got " + maxListeners);
+        }
+        this.maxGeneratedDispatcherSize = maxListeners;
+        return this;
+    }
+
+    @Override
+    public BusBuilder relinkOnRegister() {
+        this.relinkOnRegister = true;
+        return this;
+    }
+
+    @Override
+    public BusBuilder asyncListenerExecutor(Executor executor) {
+        this.asyncListenerExecutor = Objects.requireNonNull(executor, "executor");
+        return this;
+    }
+
     @Override
     public IEventBus build() {
         return new EventBus(this);
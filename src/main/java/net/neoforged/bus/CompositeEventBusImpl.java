@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.neoforged.bus.api.CompositeEventBus;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.EventTypeIds;
+import net.neoforged.bus.api.IEventBus;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * CompositeEventBus Implementation, public for CompositeEventBus.of() only, don't use this directly.
+ */
+@ApiStatus.Internal
+public final class CompositeEventBusImpl implements CompositeEventBus {
+    private static final EventPriority[] PRIORITIES = EventPriority.values();
+    private static final Merged[] EMPTY = new Merged[0];
+
+    private final EventBus[] buses;
+    private final EventBus[] checkingBuses;
+    private final List<IEventBus> busList;
+    /**
+     * Merged listeners indexed by {@link EventTypeIds event type id}, cleared whenever any bus changes.
+     */
+    private volatile Merged[] merged = EMPTY;
+    /**
+     * Incremented on every change, so that a merge racing with a change is not cached.
+     */
+    private int version;
+    /**
+     * Registered to every bus, and removed from them once this composite is closed or collected.
+     */
+    private final Invalidator invalidator;
+    private volatile boolean closed;
+
+    public CompositeEventBusImpl(List<? extends IEventBus> buses) {
+        this.buses = new EventBus[buses.size()];
+        for (int i = 0; i < this.buses.length; ++i) {
+            if (!(buses.get(i) instanceof EventBus bus)) {
+                throw new IllegalArgumentException("Bus " + buses.get(i) + " was not created by a BusBuilder");
+            }
+            this.buses[i] = bus;
+        }
+        this.checkingBuses = Arrays.stream(this.buses).filter(EventBus::checksTypesOnDispatch).toArray(EventBus[]::new);
+        this.busList = List.of(this.buses);
+
+        this.invalidator = new Invalidator(this);
+        for (EventBus bus : this.buses) {
+            bus.addChangeListener(invalidator);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        invalidator.detach();
+    }
+
+    private synchronized void invalidate() {
+        version++;
+        merged = EMPTY;
+    }
+
+    @Override
+    public <T extends Event> T post(T event) {
+        if (closed) {
+            throw new IllegalStateException("Cannot post to a closed composite bus.");
+        }
+        for (EventBus bus : checkingBuses) {
+            if (!bus.isShutdown()) {
+                bus.doPostChecks(event);
+            }
+        }
+
+        Merged merged = getMerged(event.getClass());
+        for (EventBus bus : merged.buses) {
+            if (bus.isShutdown()) {
+                merged.dispatchStarted(event);
+                return event;
+            }
+        }
+        merged.dispatch(event);
+        return event;
+    }
+
+    @Override
+    public List<IEventBus> buses() {
+        return busList;
+    }
+
+    private Merged getMerged(Class<? extends Event> eventType) {
+        int id = EventTypeIds.idOf(eventType);
+        Merged[] cache = merged;
+        if (id < cache.length && cache[id] != null) {
+            return cache[id];
+        }
+
+        int expectedVersion;
+        synchronized (this) {
+            expectedVersion = version;
+        }
+        Merged result = merge(eventType);
+        synchronized (this) {
+            if (version == expectedVersion) {
+                cache = Arrays.copyOf(merged, Math.max(id + 1, merged.length));
+                cache[id] = result;
+                merged = cache;
+            }
+        }
+        return result;
+    }
+
+    private Merged merge(Class<?> eventType) {
+        List<EventBus> involved = new ArrayList<>();
+        List<ListenerList> involvedLists = new ArrayList<>();
+        for (EventBus bus : buses) {
+            ListenerList list = bus.findListenerList(eventType);
+            if (list != null && list.hasListeners()) {
+                involved.add(bus);
+                involvedLists.add(list);
+            }
+        }
+
+        List<EventListener> listeners = new ArrayList<>();
+        List<EventBus> owners = new ArrayList<>();
+        List<EventListener[]> ownerListeners = new ArrayList<>();
+        List<Integer> ownerIndices = new ArrayList<>();
+        for (EventPriority phase : PRIORITIES) {
+            for (int i = 0; i < involved.size(); ++i) {
+                EventListener[] phaseListeners = involvedLists.get(i).getListenersByPhase()[phase.ordinal()];
+                for (int j = 0; j < phaseListeners.length; ++j) {
+                    listeners.add(phaseListeners[j]);
+                    owners.add(involved.get(i));
+                    ownerListeners.add(phaseListeners);
+                    ownerIndices.add(j);
+                }
+            }
+        }
+
+        return new Merged(
+                involved.toArray(EventBus[]::new),
+                involvedLists.toArray(ListenerList[]::new),
+                listeners.toArray(EventListener[]::new),
+                owners.toArray(EventBus[]::new),
+                ownerListeners.toArray(EventListener[][]::new),
+                ownerIndices.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * The listeners of all buses for one event type, in phase order and then bus order.
+     * Exceptions are reported to the owning bus, with the listeners of the phase, as if the phase had been posted to that bus.
+     */
+    private record Merged(
+            EventBus[] buses,
+            ListenerList[] lists,
+            EventListener[] listeners,
+            EventBus[] owners,
+            EventListener[][] ownerListeners,
+            int[] ownerIndices) {
+        void dispatch(Event event) {
+            int index = 0;
+            try {
+                for (; index < listeners.length; index++) {
+                    listeners[index].invoke(event);
+                }
+            } catch (Throwable throwable) {
+                onException(event, index, throwable);
+                throw throwable;
+            }
+            submitAsyncListeners(event);
+        }
+
+        /**
+         * Slow path skipping the listeners of buses that are shut down.
+         */
+        void dispatchStarted(Event event) {
+            int index = 0;
+            try {
+                for (; index < listeners.length; index++) {
+                    if (!owners[index].isShutdown()) {
+                        listeners[index].invoke(event);
+                    }
+                }
+            } catch (Throwable throwable) {
+                onException(event, index, throwable);
+                throw throwable;
+            }
+            submitAsyncListeners(event);
+        }
+
+        private void onException(Event event, int index, Throwable throwable) {
+            owners[index].onListenerException(event, ownerListeners[index], ownerIndices[index], throwable);
+        }
+
+        private void submitAsyncListeners(Event event) {
+            for (int i = 0; i < buses.length; ++i) {
+                if (!buses[i].isShutdown()) {
+                    buses[i].submitAsyncListeners(lists[i].getAsyncListeners(), event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Only holds on to the composite weakly, so that the buses don't keep composites that are no longer used alive.
+     */
+    private static final class Invalidator implements Runnable {
+        private final WeakReference<CompositeEventBusImpl> composite;
+        private final EventBus[] buses;
+
+        private Invalidator(CompositeEventBusImpl composite) {
+            this.composite = new WeakReference<>(composite);
+            this.buses = composite.buses;
+        }
+
+        @Override
+        public void run() {
+            CompositeEventBusImpl target = composite.get();
+            if (target != null) {
+                target.invalidate();
+            } else {
+                detach();
+            }
+        }
+
+        private void detach() {
+            for (EventBus bus : buses) {
+                bus.removeChangeListener(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.function.Consumer;
+import net.jodah.typetools.TypeResolver;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resolves the event type of the consumers registered without an explicit event type, once per consumer class.
+ * <p>
+ * Classes implementing {@code Consumer<SomeEvent>} and serializable lambdas are resolved through public reflection.
+ * Other lambdas fall back to {@link TypeResolver}, which reads the constant pool of the lambda class and is much slower,
+ * hence the cache: all lambdas created by the same expression share their class.
+ */
+final class ConsumerEventTypes {
+    private static final ClassValue<Resolution> CACHE = new ClassValue<>() {
+        @Override
+        protected Resolution computeValue(Class<?> type) {
+            return new Resolution();
+        }
+    };
+
+    private ConsumerEventTypes() {}
+
+    /**
+     * {@return the raw type of the argument of the consumer, or {@code TypeResolver.Unknown.class} if it can't be resolved}
+     */
+    static Class<?> resolve(Consumer<?> consumer) {
+        var resolution = CACHE.get(consumer.getClass());
+        var eventType = resolution.eventType;
+        if (eventType == null) {
+            // Resolved from the first instance, since serializable lambdas only describe themselves through an instance
+            resolution.eventType = eventType = resolveUncached(consumer);
+        }
+        return eventType;
+    }
+
+    private static Class<?> resolveUncached(Consumer<?> consumer) {
+        Class<?> eventType = fromSerializedLambda(consumer);
+        if (eventType == null) {
+            eventType = fromGenericInterfaces(consumer.getClass());
+        }
+        if (eventType == null) {
+            eventType = TypeResolver.resolveRawArgument(Consumer.class, consumer.getClass());
+        }
+        return eventType;
+    }
+
+    @Nullable
+    private static Class<?> fromSerializedLambda(Consumer<?> consumer) {
+        if (!(consumer instanceof Serializable) || !consumer.getClass().isSynthetic()) {
+            return null;
+        }
+        try {
+            Method writeReplace = consumer.getClass().getDeclaredMethod("writeReplace");
+            if (!writeReplace.trySetAccessible() || !(writeReplace.invoke(consumer) instanceof SerializedLambda lambda)) {
+                return null;
+            }
+            // The instantiated type has the erased types of the lambda, without the captured arguments
+            var type = MethodType.fromMethodDescriptorString(lambda.getInstantiatedMethodType(), consumer.getClass().getClassLoader());
+            return type.parameterCount() == 1 ? type.parameterType(0) : null;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@return the type argument of {@code Consumer} if a class in the hierarchy implements it with a concrete type}
+     */
+    @Nullable
+    private static Class<?> fromGenericInterfaces(Class<?> consumerClass) {
+        for (Class<?> type = consumerClass; type != null; type = type.getSuperclass()) {
+            for (Type itf : type.getGenericInterfaces()) {
+                if (itf instanceof ParameterizedType parameterized && parameterized.getRawType() == Consumer.class) {
+                    Type argument = parameterized.getActualTypeArguments()[0];
+                    if (argument instanceof Class<?> eventType) {
+                        return eventType;
+                    }
+                    if (argument instanceof ParameterizedType parameterizedArgument) {
+                        return (Class<?>) parameterizedArgument.getRawType();
+                    }
+                    // Type variables are resolved against the whole hierarchy by the fallback
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class Resolution {
+        @Nullable
+        private volatile Class<?> eventType;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus;
+
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.IFEQ;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V16;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Consumer;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.ICancellableEvent;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates {@link EventListener} classes for the consumers passed to {@code addListener}, one per consumer class.
+ * <p>
+ * A shared wrapper calls all consumers from the same call site, which is megamorphic as soon as a few lambdas are registered.
+ * Each generated class has its own call site, which only ever sees one consumer class,
+ * so that the JIT can inline the body of the lambda into the listener.
+ * The listeners that skip canceled events check for cancellation themselves, instead of calling a predicate.
+ * <p>
+ * The classes are loaded with {@code defineHiddenClass}, like the wrappers generated by {@link EventListenerFactory}.
+ */
+class ConsumerListenerFactory {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final String BASE_DESC = Type.getInternalName(GeneratedConsumerListener.class);
+    private static final String CHECKED_BASE_DESC = Type.getInternalName(GeneratedConsumerListener.Checked.class);
+    private static final String CONSUMER_DESC = Type.getInternalName(Consumer.class);
+    private static final String CANCELLABLE_DESC = Type.getInternalName(ICancellableEvent.class);
+
+    private static final String INVOKE_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Event.class));
+    private static final String ACCEPT_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Object.class));
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(void.class, Consumer.class);
+    private static final MethodType CHECKED_CONSTRUCTOR = MethodType.methodType(void.class, Consumer.class, EventListener.class);
+
+    private static final ClassValue<Factories> FACTORIES = new ClassValue<>() {
+        @Override
+        protected Factories computeValue(Class<?> type) {
+            return new Factories();
+        }
+    };
+
+    /**
+     * Creates a listener invoking the consumer.
+     *
+     * @param receiveCanceled whether the consumer is invoked for canceled events, otherwise the listener is a
+     *                        {@link IWrapperListener} that checks for cancellation
+     */
+    static EventListener create(Consumer<Event> consumer, boolean receiveCanceled) {
+        var factories = FACTORIES.get(consumer.getClass());
+        try {
+            var listener = (EventListener) factories.plain().invoke(consumer);
+            if (receiveCanceled) {
+                return listener;
+            }
+            return (EventListener) factories.checked().invoke(consumer, listener);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to create listener for " + consumer, e);
+        }
+    }
+
+    /**
+     * The constructors of the classes generated for a consumer class, each generated on first use.
+     * Racing threads may both generate a class, only one of them is kept.
+     */
+    private static final class Factories {
+        @Nullable
+        private volatile MethodHandle plain;
+        @Nullable
+        private volatile MethodHandle checked;
+
+        MethodHandle plain() {
+            var factory = plain;
+            if (factory == null) {
+                plain = factory = defineClass(false);
+            }
+            return factory;
+        }
+
+        MethodHandle checked() {
+            var factory = checked;
+            if (factory == null) {
+                checked = factory = defineClass(true);
+            }
+            return factory;
+        }
+    }
+
+    private static MethodHandle defineClass(boolean checkCanceled) {
+        try {
+            var classBytes = makeClass(ConsumerListenerFactory.class.getName() + (checkCanceled ? "$Checked" : "$Consumer"), checkCanceled);
+            var classLookup = LOOKUP.defineHiddenClass(classBytes, true);
+            return classLookup.findConstructor(classLookup.lookupClass(), checkCanceled ? CHECKED_CONSTRUCTOR : CONSTRUCTOR);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create listener class", e);
+        }
+    }
+
+    private static byte[] makeClass(String name, boolean checkCanceled) {
+        ClassWriter cv = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Frames only ever merge identical types, avoid loading classes from the writer
+                return "java/lang/Object";
+            }
+        };
+
+        String desc = name.replace('.', '/');
+        String superDesc = checkCanceled ? CHECKED_BASE_DESC : BASE_DESC;
+        MethodType constructor = checkCanceled ? CHECKED_CONSTRUCTOR : CONSTRUCTOR;
+        cv.visit(V16, ACC_PUBLIC | ACC_FINAL, desc, null, superDesc, null);
+
+        cv.visitSource(".dynamic", null);
+        {
+            var mv = cv.visitMethod(ACC_PUBLIC, "<init>", constructor.toMethodDescriptorString(), null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            if (checkCanceled) {
+                mv.visitVarInsn(ALOAD, 2);
+            }
+            mv.visitMethodInsn(INVOKESPECIAL, superDesc, "<init>", constructor.toMethodDescriptorString(), false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        {
+            var mv = cv.visitMethod(ACC_PUBLIC, "invoke", INVOKE_DESC, null, null);
+            mv.visitCode();
+            var skip = new Label();
+            if (checkCanceled) {
+                // The cast is safe because the check is removed if the event is not cancellable
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitTypeInsn(CHECKCAST, CANCELLABLE_DESC);
+                mv.visitMethodInsn(INVOKEINTERFACE, CANCELLABLE_DESC, "isCanceled", "()Z", true);
+                mv.visitJumpInsn(IFEQ, skip);
+                mv.visitInsn(RETURN);
+                mv.visitLabel(skip);
+            }
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, BASE_DESC, "consumer", Type.getDescriptor(Consumer.class));
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEINTERFACE, CONSUMER_DESC, "accept", ACCEPT_DESC, true);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cv.visitEnd();
+
+        return cv.toByteArray();
+    }
+}
@@ -18,25 +18,43 @@ package net.neoforged.bus;
 
 import static net.neoforged.bus.LogMarkers.EVENTBUS;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.function.Supplier;
 import net.jodah.typetools.TypeResolver;
+import net.neoforged.bus.SubscriberClass.SubscriberMethod;
 import net.neoforged.bus.api.Event;
 import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.EventPoster;
 import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.EventTypeIds;
 import net.neoforged.bus.api.ICancellableEvent;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.api.IEventClassChecker;
 import net.neoforged.bus.api.IEventExceptionHandler;
 import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.api.Subscription;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.ApiStatus;
@@ -47,40 +65,222 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final boolean checkTypesOnDispatchProperty = Boolean.parseBoolean(System.getProperty("eventbus.checkTypesOnDispatch", "false"));
 
-    private final ConcurrentHashMap<Object, List<EventListener>> listeners = new ConcurrentHashMap<>();
-    private final LockHelper<Class<?>, ListenerList> listenerLists = LockHelper.withIdentityHashMap();
+    /**
+     * The listeners of each registered target, with the list and priority they were registered to,
+     * so that unregistering only touches those lists.
+     */
+    private final ConcurrentHashMap<Object, List<RegisteredListener>> listeners = new ConcurrentHashMap<>();
+    /**
+     * Listener lists indexed by {@link EventTypeIds event type id}, replaced as a whole when a list is added.
+     */
+    private volatile ListenerList[] listenerLists = new ListenerList[0];
+    private final Object listenerListsLock = new Object();
     private final IEventExceptionHandler exceptionHandler;
     private volatile boolean shutdown = false;
 
     private final IEventClassChecker classChecker;
     private final boolean checkTypesOnDispatch;
     private final boolean allowPerPhasePost;
+    private final int maxGeneratedDispatcherSize;
+    private final boolean relinkOnRegister;
+    private final Executor asyncListenerExecutor;
+    /**
+     * Notified whenever a listener is added or removed, used to invalidate {@link CompositeEventBusImpl} caches.
+     */
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    /**
+     * The registrations accumulated by {@link #registerBatch(Consumer)} on the current thread, if any.
+     */
+    private final ThreadLocal<RegistrationBatch> registrationBatch = new ThreadLocal<>();
+    /**
+     * Receives the weakly registered targets once they are collected, created on the first weak registration.
+     */
+    @Nullable
+    private volatile ReferenceQueue<Object> weakTargets;
+    /**
+     * The dispatchers built by {@link #freeze()}, if it was called.
+     */
+    @Nullable
+    private volatile FrozenListeners frozen;
 
     @SuppressWarnings("unused")
     private EventBus() {
         this(new BusBuilderImpl());
     }
 
-    private EventBus(final IEventExceptionHandler handler, boolean startShutdown, IEventClassChecker classChecker, boolean checkTypesOnDispatch, boolean allowPerPhasePost) {
+    private EventBus(final IEventExceptionHandler handler, boolean startShutdown, IEventClassChecker classChecker, boolean checkTypesOnDispatch, boolean allowPerPhasePost, int maxGeneratedDispatcherSize, boolean relinkOnRegister, Executor asyncListenerExecutor) {
         if (handler == null) exceptionHandler = this;
         else exceptionHandler = handler;
         this.shutdown = startShutdown;
         this.classChecker = classChecker;
         this.checkTypesOnDispatch = checkTypesOnDispatch || checkTypesOnDispatchProperty;
         this.allowPerPhasePost = allowPerPhasePost;
+        this.maxGeneratedDispatcherSize = maxGeneratedDispatcherSize;
+        this.relinkOnRegister = relinkOnRegister;
+        this.asyncListenerExecutor = asyncListenerExecutor;
     }
 
     public EventBus(final BusBuilderImpl busBuilder) {
         this(busBuilder.exceptionHandler, busBuilder.startShutdown,
-                busBuilder.classChecker, busBuilder.checkTypesOnDispatch, busBuilder.allowPerPhasePost);
+                busBuilder.classChecker, busBuilder.checkTypesOnDispatch, busBuilder.allowPerPhasePost,
+                busBuilder.maxGeneratedDispatcherSize, busBuilder.relinkOnRegister, busBuilder.asyncListenerExecutor);
     }
 
     @Override
     public void register(final Object target) {
-        if (listeners.containsKey(target)) {
+        drainWeakTargets();
+        // All methods of the target update their listener lists once
+        registerBatch(bus -> registerTarget(target, target));
+    }
+
+    @Override
+    public Subscription registerWeak(final Object target) {
+        if (target instanceof Class<?> || target instanceof Method) {
+            throw new IllegalArgumentException("registerWeak() was called with " + target + ", only listener instances can be registered weakly.");
+        }
+        drainWeakTargets();
+        var subscription = new SubscriptionImpl();
+        subscription.weakTarget = new WeakTarget(target, subscription, weakTargetQueue());
+        return subscribeTarget(target, subscription);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <O, T extends Event> Subscription addWeakListener(Class<T> eventType, O owner, BiConsumer<? super O, ? super T> listener) {
+        drainWeakTargets();
+        var subscription = new SubscriptionImpl();
+        var weakTarget = new WeakTarget(owner, subscription, weakTargetQueue());
+        subscription.weakTarget = weakTarget;
+        Consumer<T> consumer = event -> {
+            Object target = weakTarget.get();
+            if (target != null) {
+                listener.accept((O) target, event);
+            }
+        };
+        addConsumerListener(EventPriority.NORMAL, false, eventType, consumer, subscription);
+        return subscription;
+    }
+
+    private ReferenceQueue<Object> weakTargetQueue() {
+        ReferenceQueue<Object> queue = weakTargets;
+        if (queue == null) {
+            synchronized (listenerListsLock) {
+                queue = weakTargets;
+                if (queue == null) {
+                    weakTargets = queue = new ReferenceQueue<>();
+                }
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Unregisters the listeners of all weakly registered targets that were collected, with one update per listener list.
+     */
+    private void drainWeakTargets() {
+        ReferenceQueue<Object> queue = weakTargets;
+        if (queue == null || frozen != null) {
             return;
         }
+        List<RegisteredListener> dead = null;
+        for (Reference<?> reference; (reference = queue.poll()) != null;) {
+            var subscription = ((WeakTarget) reference).subscription;
+            if (subscription.closed.compareAndSet(false, true)) {
+                if (dead == null) {
+                    dead = new ArrayList<>();
+                }
+                synchronized (subscription.registered) {
+                    dead.addAll(subscription.registered);
+                }
+            }
+        }
+        if (dead != null) {
+            unregisterAll(dead);
+        }
+    }
+
+    @Override
+    public Subscription subscribe(final Object target) {
+        return subscribeTarget(target, new SubscriptionImpl());
+    }
+
+    /**
+     * Registers the target with the subscription as key, unregistering the listeners added before a failure:
+     * the caller never gets the subscription, and nothing else tracks them.
+     */
+    private Subscription subscribeTarget(final Object target, final SubscriptionImpl subscription) {
+        try {
+            registerBatch(bus -> registerTarget(target, subscription));
+        } catch (RuntimeException e) {
+            subscription.close();
+            throw e;
+        }
+        return subscription;
+    }
+
+    @Override
+    public <T extends Event> Subscription subscribe(Class<T> eventType, Consumer<T> consumer) {
+        return subscribe(EventPriority.NORMAL, false, eventType, consumer);
+    }
+
+    @Override
+    public <T extends Event> Subscription subscribe(EventPriority priority, boolean receiveCanceled, Class<T> eventType, Consumer<T> consumer) {
+        var subscription = new SubscriptionImpl();
+        addConsumerListener(priority, receiveCanceled, eventType, consumer, subscription);
+        return subscription;
+    }
+
+    @Override
+    public void registerAll(final Collection<?> targets, final Executor executor) {
+        checkNotFrozen();
+        drainWeakTargets();
+        var prepared = new ArrayList<CompletableFuture<PreparedTarget>>(targets.size());
+        for (Object target : targets) {
+            Objects.requireNonNull(target, "target");
+            prepared.add(CompletableFuture.supplyAsync(() -> prepareTarget(target, target), executor));
+        }
+        // Committed in the order of the collection, so that the result does not depend on which preparation finished first
+        registerBatch(bus -> {
+            for (var future : prepared) {
+                PreparedTarget target;
+                try {
+                    target = future.join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException cause) throw cause;
+                    if (e.getCause() instanceof Error cause) throw cause;
+                    throw e;
+                }
+                commitTarget(target);
+            }
+        });
+    }
+
+    /**
+     * @param key the key to unregister the listeners with, either the target itself or a {@link SubscriptionImpl}
+     */
+    private void registerTarget(final Object target, final Object key) {
+        commitTarget(prepareTarget(target, key));
+    }
+
+    /**
+     * Validates the target and creates its listeners, without touching the listeners of this bus,
+     * so that targets can be prepared concurrently by {@link #registerAll(Collection, Executor)}.
+     */
+    private PreparedTarget prepareTarget(final Object target, final Object key) {
+        var prepared = new ArrayList<PreparedListener>();
+        if (listeners.containsKey(key)) {
+            return new PreparedTarget(key, prepared, null);
+        }
+        try {
+            prepareListeners(target, key, prepared);
+        } catch (RuntimeException e) {
+            // Thrown once the listeners prepared before the failure are registered, like when registering them one by one
+            return new PreparedTarget(key, prepared, e);
+        }
+        return new PreparedTarget(key, prepared, null);
+    }
 
+    private void prepareListeners(final Object target, final Object key, final List<PreparedListener> prepared) {
         Class<?> type = target.getClass();
         if (type == Method.class) {
             var method = (Method) target;
@@ -91,7 +291,7 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
                 throw new IllegalArgumentException("register() was called with a Method that is not annotated with @SubscribeEvent: " + method);
             }
 
-            registerListener(method, method);
+            prepared.add(prepareListener(method, new SubscriberMethod(method), key));
 
             return;
         }
@@ -99,16 +299,15 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
         boolean isStatic = type == Class.class;
         Class<?> clazz = isStatic ? (Class<?>) target : type;
 
-        checkSupertypes(clazz, clazz);
-
-        int foundMethods = 0;
-        for (Method method : clazz.getDeclaredMethods()) {
-            if (!method.isAnnotationPresent(SubscribeEvent.class)) {
-                continue;
-            }
+        // Only the validation that depends on this bus is repeated for each registration of the class
+        SubscriberClass subscriber = SubscriberClass.of(clazz);
+        if (subscriber.supertypeError != null) {
+            throw new IllegalArgumentException(subscriber.supertypeError);
+        }
 
-            if (Modifier.isStatic(method.getModifiers()) == isStatic) {
-                registerListener(target, method);
+        for (SubscriberMethod method : subscriber.methods) {
+            if (method.isStatic == isStatic) {
+                prepared.add(prepareListener(target, method, key));
             } else {
                 if (isStatic) {
                     throw new IllegalArgumentException("""
@@ -124,11 +323,9 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
                             """.formatted(method, clazz.getSimpleName()));
                 }
             }
-
-            ++foundMethods;
         }
 
-        if (foundMethods == 0) {
+        if (subscriber.methods.isEmpty()) {
             throw new IllegalArgumentException("""
                     %s has no @SubscribeEvent methods, but register was called anyway.
                     The event bus only recognizes listener methods that have the @SubscribeEvent annotation.
@@ -136,44 +333,13 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
         }
     }
 
-    private static void checkSupertypes(Class<?> registeredType, Class<?> type) {
-        if (type == null || type == Object.class) {
-            return;
-        }
-
-        if (type != registeredType) {
-            for (var method : type.getDeclaredMethods()) {
-                if (method.isAnnotationPresent(SubscribeEvent.class)) {
-                    throw new IllegalArgumentException("""
-                            Attempting to register a listener object of type %s,
-                            however its supertype %s has a @SubscribeEvent method: %s.
-                            This is not allowed! Only the listener object can have @SubscribeEvent methods.
-                            """.formatted(registeredType, type, method));
-                }
-            }
-        }
-
-        checkSupertypes(registeredType, type.getSuperclass());
-        Stream.of(type.getInterfaces())
-                .forEach(itf -> checkSupertypes(registeredType, itf));
-    }
-
-    private void registerListener(final Object target, final Method method) {
-        Class<?>[] parameterTypes = method.getParameterTypes();
-        if (parameterTypes.length != 1) {
-            throw new IllegalArgumentException(
-                    "Method " + method + " has @SubscribeEvent annotation. " +
-                            "It has " + parameterTypes.length + " arguments, " +
-                            "but event handler methods require a single argument only.");
+    @SuppressWarnings("unchecked")
+    private PreparedListener prepareListener(final Object target, final SubscriberMethod method, final Object key) {
+        if (method.error != null) {
+            throw new IllegalArgumentException(method.error);
         }
 
-        Class<?> eventType = parameterTypes[0];
-
-        if (!Event.class.isAssignableFrom(eventType)) {
-            throw new IllegalArgumentException(
-                    "Method " + method + " has @SubscribeEvent annotation, " +
-                            "but takes an argument that is not an Event subtype : " + eventType);
-        }
+        Class<?> eventType = method.eventType;
         try {
             classChecker.check((Class<? extends Event>) eventType);
         } catch (IllegalArgumentException e) {
@@ -183,13 +349,30 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
                     e);
         }
 
-        register(eventType, target, method);
+        EventListener handler;
+        if (key instanceof SubscriptionImpl subscription && subscription.weakTarget != null) {
+            handler = weakHandler(subscription.weakTarget, method);
+        } else {
+            handler = method.createHandler(target);
+        }
+        return new PreparedListener(eventType, new SubscribeEventListener(handler, target, method));
     }
 
-    @Nullable
-    private <T extends Event> Predicate<T> passNotGenericFilter(boolean receiveCanceled) {
-        // The cast is safe because the filter is removed if the event is not cancellable
-        return receiveCanceled ? null : e -> !((ICancellableEvent) e).isCanceled();
+    /**
+     * Registers the listeners of a prepared target, then throws the exception that interrupted its preparation, if any.
+     */
+    private void commitTarget(final PreparedTarget target) {
+        // The target may have been registered since it was prepared
+        if (listeners.containsKey(target.key)) {
+            return;
+        }
+        for (PreparedListener prepared : target.listeners) {
+            var listener = prepared.listener;
+            addToListeners(target.key, prepared.eventType, listener, listener.isAsync() ? null : listener.getPriority());
+        }
+        if (target.error != null) {
+            throw target.error;
+        }
     }
 
     @Override
@@ -204,7 +387,7 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
 
     @Override
     public <T extends Event> void addListener(final EventPriority priority, final boolean receiveCanceled, final Consumer<T> consumer) {
-        addListener(priority, passNotGenericFilter(receiveCanceled), consumer);
+        addConsumerListener(priority, receiveCanceled, consumer);
     }
 
     @Override
@@ -229,12 +412,22 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
 
     @Override
     public <T extends Event> void addListener(final EventPriority priority, final boolean receiveCanceled, final Class<T> eventType, final Consumer<T> consumer) {
-        addListener(priority, passNotGenericFilter(receiveCanceled), eventType, consumer);
+        addConsumerListener(priority, receiveCanceled, eventType, consumer, consumer);
+    }
+
+    @Override
+    public <T extends Event> void addAsyncListener(Class<T> eventType, Consumer<T> consumer) {
+        addAsyncListener(false, eventType, consumer);
+    }
+
+    @Override
+    public <T extends Event> void addAsyncListener(boolean receiveCanceled, Class<T> eventType, Consumer<T> consumer) {
+        addConsumerListener(null, receiveCanceled, eventType, consumer, consumer);
     }
 
     @SuppressWarnings("unchecked")
     private <T extends Event> Class<T> getEventClass(Consumer<T> consumer) {
-        final Class<T> eventClass = (Class<T>) TypeResolver.resolveRawArgument(Consumer.class, consumer.getClass());
+        final Class<T> eventClass = (Class<T>) ConsumerEventTypes.resolve(consumer);
         if ((Class<?>) eventClass == TypeResolver.Unknown.class) {
             LOGGER.error(EVENTBUS, "Failed to resolve handler for \"{}\"", consumer.toString());
             throw new IllegalStateException("Failed to resolve consumer event type: " + consumer.toString());
@@ -242,55 +435,163 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
         return eventClass;
     }
 
-    private <T extends Event> void addListener(final EventPriority priority, @Nullable Predicate<? super T> filter, final Consumer<T> consumer) {
+    private <T extends Event> void addConsumerListener(final EventPriority priority, final boolean receiveCanceled, final Consumer<T> consumer) {
         Class<T> eventClass = getEventClass(consumer);
         if (Objects.equals(eventClass, Event.class))
             LOGGER.warn(EVENTBUS, "Attempting to add a Lambda listener with computed generic type of Event. " +
                     "Are you sure this is what you meant? NOTE : there are complex lambda forms where " +
                     "the generic type information is erased and cannot be recovered at runtime.");
-        addListener(priority, filter, eventClass, consumer);
+        addConsumerListener(priority, receiveCanceled, eventClass, consumer, consumer);
     }
 
-    private <T extends Event> void addListener(final EventPriority priority, @Nullable Predicate<? super T> filter, final Class<T> eventClass, final Consumer<T> consumer) {
+    /**
+     * @param priority the priority of the listener, or {@code null} for an asynchronous listener
+     */
+    private <T extends Event> void addConsumerListener(@Nullable final EventPriority priority, final boolean receiveCanceled, final Class<T> eventClass, final Consumer<T> consumer, final Object key) {
         try {
             classChecker.check(eventClass);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException(
                     "Listener for event " + eventClass + " takes an argument that is not valid for this bus", e);
         }
-        EventListener listener = filter == null ? new ConsumerEventHandler((Consumer<Event>) consumer) : new ConsumerEventHandler.WithPredicate((Consumer<Event>) consumer, (Predicate<Event>) filter);
-        addToListeners(consumer, eventClass, listener, priority);
+        EventListener listener = ConsumerListenerFactory.create((Consumer<Event>) consumer, receiveCanceled);
+        addToListeners(key, eventClass, listener, priority);
     }
 
-    private void register(Class<?> eventType, Object target, Method method) {
-        SubscribeEventListener listener = new SubscribeEventListener(target, method);
-        addToListeners(target, eventType, listener, listener.getPriority());
+    /**
+     * {@return a handler invoking the method on the target as long as it was not collected, without holding on to it}
+     */
+    private static EventListener weakHandler(WeakTarget weakTarget, SubscriberMethod method) {
+        return new ConsumerEventHandler(event -> {
+            Object target = weakTarget.get();
+            if (target != null) {
+                try {
+                    method.invoke(target, event);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new RuntimeException(t);
+                }
+            }
+        });
     }
 
-    private void addToListeners(final Object target, final Class<?> eventType, final EventListener listener, final EventPriority priority) {
+    private void addToListeners(final Object key, final Class<?> eventType, final EventListener listener, @Nullable final EventPriority priority) {
+        checkNotFrozen();
         if (Modifier.isAbstract(eventType.getModifiers())) {
             throw new IllegalArgumentException(
                     "Cannot register listeners for abstract " + eventType +
                             ". Register a listener to one of its subclasses instead!");
         }
-        getListenerList(eventType).register(priority, listener);
-        List<EventListener> others = listeners.computeIfAbsent(target, k -> Collections.synchronizedList(new ArrayList<>()));
-        others.add(listener);
+        ListenerList listenerList = getListenerList(eventType);
+        var registration = new ListenerList.Registration(priority, listener);
+        RegistrationBatch batch = registrationBatch.get();
+        if (batch != null) {
+            batch.add(listenerList, registration);
+        } else if (priority == null) {
+            listenerList.registerAsync(listener);
+        } else {
+            listenerList.register(priority, listener);
+        }
+        // Subscriptions track their own listeners, so that they never need to be looked up
+        List<RegisteredListener> others = key instanceof SubscriptionImpl subscription ? subscription.registered
+                : listeners.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()));
+        others.add(new RegisteredListener(listenerList, registration));
+        if (batch == null) {
+            fireListenersChanged();
+        }
+    }
+
+    @Override
+    public void registerBatch(Consumer<IEventBus> registrations) {
+        checkNotFrozen();
+        if (registrationBatch.get() != null) {
+            // Nested batches are merged into the outer one
+            registrations.accept(this);
+            return;
+        }
+
+        RegistrationBatch batch = new RegistrationBatch();
+        registrationBatch.set(batch);
+        try {
+            registrations.accept(this);
+        } finally {
+            // Whatever was registered before a failure stays registered, like outside of a batch
+            registrationBatch.remove();
+            batch.commit();
+            if (!batch.pending.isEmpty()) {
+                fireListenersChanged();
+            }
+        }
     }
 
+    void addChangeListener(Runnable changeListener) {
+        changeListeners.add(changeListener);
+    }
+
+    void removeChangeListener(Runnable changeListener) {
+        changeListeners.remove(changeListener);
+    }
+
+    private void fireListenersChanged() {
+        for (Runnable changeListener : changeListeners) {
+            changeListener.run();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
     private ListenerList getListenerList(Class<?> eventType) {
-        ListenerList list = listenerLists.get(eventType);
-        if (list != null) {
-            return list;
+        int id = EventTypeIds.idOf((Class<? extends Event>) eventType);
+        ListenerList[] lists = listenerLists;
+        if (id < lists.length) {
+            ListenerList list = lists[id];
+            if (list != null) {
+                return list;
+            }
         }
 
+        // Resolve the parent before taking the lock, this recursively creates the parent lists
+        ListenerList parent;
         if (Modifier.isAbstract(eventType.getSuperclass().getModifiers())) {
             validateAbstractChain(eventType.getSuperclass());
-
-            return listenerLists.computeIfAbsent(eventType, e -> new ListenerList(e, allowPerPhasePost));
+            parent = null;
         } else {
-            return listenerLists.computeIfAbsent(eventType, e -> new ListenerList(e, getListenerList(e.getSuperclass()), allowPerPhasePost));
+            parent = getListenerList(eventType.getSuperclass());
+        }
+
+        synchronized (listenerListsLock) {
+            lists = listenerLists;
+            if (id < lists.length && lists[id] != null) {
+                return lists[id];
+            }
+
+            // Created under the lock, so that only one list ever registers itself as a child of the parent
+            ListenerList list = new ListenerList(eventType, parent, allowPerPhasePost, maxGeneratedDispatcherSize, relinkOnRegister);
+            lists = Arrays.copyOf(lists, Math.max(id + 1, lists.length));
+            lists[id] = list;
+            listenerLists = lists;
+            return list;
+        }
+    }
+
+    /**
+     * Finds the list of the given event type, or of its closest supertype if it does not exist yet, without creating any list.
+     * The list of a supertype has the same listeners as the list of the event type would have.
+     *
+     * @return the list, or {@code null} if no listener was ever registered for the event type or its supertypes
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    ListenerList findListenerList(Class<?> eventType) {
+        ListenerList[] lists = listenerLists;
+        for (Class<?> type = eventType; !Modifier.isAbstract(type.getModifiers()); type = type.getSuperclass()) {
+            int id = EventTypeIds.idOf((Class<? extends Event>) type);
+            if (id < lists.length && lists[id] != null) {
+                return lists[id];
+            }
         }
+        // Abstract event types don't have listeners, and their supertypes must be abstract too
+        return null;
     }
 
     private static void validateAbstractChain(Class<?> eventType) {
@@ -308,24 +609,216 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
 
     @Override
     public void unregister(Object object) {
-        List<EventListener> list = listeners.remove(object);
+        checkNotFrozen();
+        List<RegisteredListener> list = listeners.remove(object);
         if (list == null)
             return;
-        for (ListenerList listenerList : listenerLists.getReadMap().values()) {
-            for (EventListener listener : list) {
-                listenerList.unregister(listener);
+        unregisterAll(list);
+    }
+
+    private void unregisterAll(List<RegisteredListener> list) {
+        RegistrationBatch batch = registrationBatch.get();
+        if (batch != null) {
+            batch.remove(list);
+        }
+
+        Map<ListenerList, List<ListenerList.Registration>> byList = new IdentityHashMap<>();
+        synchronized (list) {
+            for (RegisteredListener registered : list) {
+                byList.computeIfAbsent(registered.listenerList(), k -> new ArrayList<>()).add(registered.registration());
             }
         }
+        byList.forEach(ListenerList::unregisterAll);
+        fireListenersChanged();
     }
 
     @Override
     public <T extends Event> T post(T event) {
+        FrozenListeners frozen = this.frozen;
+        if (frozen != null) {
+            int id = EventTypeIds.idOf(event.getClass());
+            if (id < frozen.dispatchers.length && frozen.dispatchers[id] != null) {
+                // Frozen buses are started, and their listeners never change
+                doPostChecks(event);
+                frozen.dispatchers[id].dispatch(this, event);
+                submitAsyncListeners(frozen.asyncListeners[id], event);
+                return event;
+            }
+        }
+        if (shutdown) {
+            return event;
+        }
+        doPostChecks(event);
+
+        dispatch(getListenerList(event.getClass()), event);
+        return event;
+    }
+
+    private void dispatch(ListenerList listenerList, Event event) {
+        drainWeakTargets();
+        listenerList.getDispatcher().dispatch(this, event);
+        submitAsyncListeners(listenerList.getAsyncListeners(), event);
+    }
+
+    /**
+     * Submits each asynchronous listener to the executor, skipping those that don't receive the event if it was canceled.
+     */
+    void submitAsyncListeners(EventListener[] asyncListeners, Event event) {
+        if (asyncListeners.length == 0) {
+            return;
+        }
+        boolean canceled = event instanceof ICancellableEvent cancellable && cancellable.isCanceled();
+        for (int i = 0; i < asyncListeners.length; ++i) {
+            EventListener listener = asyncListeners[i];
+            if (listener instanceof IWrapperListener wrapper) {
+                // Decide on the posting thread, where the outcome of the event is known
+                if (canceled && !wrapper.receiveCanceled()) {
+                    continue;
+                }
+                listener = wrapper.getWithoutCheck();
+            }
+            EventListener target = listener;
+            int index = i;
+            asyncListenerExecutor.execute(() -> {
+                try {
+                    target.invoke(event);
+                } catch (Throwable throwable) {
+                    onListenerException(event, asyncListeners, index, throwable);
+                }
+            });
+        }
+    }
+
+    @Override
+    public <T extends Event> CompletableFuture<T> postAsync(T event, Executor executor) {
         if (shutdown) {
+            return CompletableFuture.completedFuture(event);
+        }
+        doPostChecks(event);
+
+        ListenerList listenerList = getListenerList(event.getClass());
+        EventDispatcher dispatcher = listenerList.getDispatcher();
+        EventListener[] asyncListeners = listenerList.getAsyncListeners();
+        return CompletableFuture.supplyAsync(() -> {
+            dispatcher.dispatch(this, event);
+            submitAsyncListeners(asyncListeners, event);
             return event;
+        }, executor);
+    }
+
+    @Override
+    public <T extends Event> void postAll(Class<T> eventType, List<? extends T> events) {
+        if (shutdown || events.isEmpty()) {
+            return;
+        }
+        // The dispatcher walks the batch once per listener
+        List<? extends T> batch = events instanceof RandomAccess ? events : new ArrayList<>(events);
+        List<T> others = null;
+        for (T event : batch) {
+            if (event.getClass() != eventType) {
+                // Other types have different listener lists, only the events of the batch type are dispatched together
+                if (others == null) {
+                    others = new ArrayList<>();
+                }
+                others.add(event);
+            }
+        }
+        if (others != null) {
+            var sameType = new ArrayList<T>(batch.size() - others.size());
+            for (T event : batch) {
+                if (event.getClass() == eventType) {
+                    sameType.add(event);
+                }
+            }
+            batch = sameType;
+        }
+
+        if (!batch.isEmpty()) {
+            doPostChecks(batch.get(0));
+            ListenerList listenerList = getListenerList(eventType);
+            listenerList.getDispatcher().dispatchAll(this, batch);
+            EventListener[] asyncListeners = listenerList.getAsyncListeners();
+            for (T event : batch) {
+                submitAsyncListeners(asyncListeners, event);
+            }
+        }
+        if (others != null) {
+            for (T event : others) {
+                post(event);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasListeners(Class<? extends Event> eventType) {
+        ListenerList listenerList = findListenerList(eventType);
+        return listenerList != null && listenerList.hasListeners();
+    }
+
+    @Override
+    public boolean hasAsyncListeners(Class<? extends Event> eventType) {
+        ListenerList listenerList = findListenerList(eventType);
+        return listenerList != null && listenerList.getAsyncListeners().length != 0;
+    }
+
+    @Override
+    @Nullable
+    public <T extends Event> T post(Class<T> eventType, Supplier<? extends T> eventFactory) {
+        if (shutdown) {
+            return null;
+        }
+        // The list of a supertype has the same listeners, dispatching through it avoids creating the list of the event type
+        ListenerList listenerList = findListenerList(eventType);
+        if (listenerList == null || !listenerList.hasListeners()) {
+            return null;
+        }
+
+        T event = eventFactory.get();
+        if (event.getClass() != eventType) {
+            // Listeners of the actual type of the event were not considered, it would be dropped if they were the only ones
+            throw new IllegalArgumentException("The factory passed to post(" + eventType.getName() + ", Supplier) created an event of type " + event.getClass().getName());
+        }
+        if (frozen != null) {
+            // Use the dispatchers built when freezing
+            return post(event);
         }
         doPostChecks(event);
 
-        return post(event, getListenerList(event.getClass()).getListeners());
+        dispatch(listenerList, event);
+        return event;
+    }
+
+    @Override
+    public <T extends Event> EventPoster<T> poster(Class<T> eventType) {
+        if (Modifier.isAbstract(eventType.getModifiers())) {
+            throw new IllegalArgumentException("Cannot create a poster for abstract " + eventType + ", its instances are never of that exact type.");
+        }
+        if (checkTypesOnDispatch) {
+            try {
+                classChecker.check(eventType);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "Cannot post event of type " + eventType.getSimpleName() + " to this bus", e);
+            }
+        }
+        ListenerList listenerList = getListenerList(eventType);
+        if (relinkOnRegister && frozen == null) {
+            return listenerList.getLinkedPoster(this, eventType);
+        }
+        return new Poster<>(eventType, listenerList);
+    }
+
+    /**
+     * Called by {@link LinkedPoster} before dispatching through the call site of a listener list.
+     *
+     * @return whether the event should be dispatched, {@code false} if the bus is shut down
+     */
+    boolean prepareLinkedPost() {
+        if (shutdown) {
+            return false;
+        }
+        drainWeakTargets();
+        return true;
     }
 
     @Override
@@ -339,10 +832,16 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
         }
         doPostChecks(event);
 
-        return post(event, getListenerList(event.getClass()).getPhaseListeners(phase));
+        ListenerList listenerList = getListenerList(event.getClass());
+        listenerList.getPhaseDispatcher(phase).dispatch(this, event);
+        if (phase == EventPriority.LOWEST) {
+            // Asynchronous listeners run once the last phase is done
+            submitAsyncListeners(listenerList.getAsyncListeners(), event);
+        }
+        return event;
     }
 
-    private void doPostChecks(Event event) {
+    void doPostChecks(Event event) {
         if (checkTypesOnDispatch) {
             try {
                 classChecker.check(event.getClass());
@@ -353,17 +852,8 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
         }
     }
 
-    private <T extends Event> T post(T event, EventListener[] listeners) {
-        int index = 0;
-        try {
-            for (; index < listeners.length; index++) {
-                listeners[index].invoke(event);
-            }
-        } catch (Throwable throwable) {
-            exceptionHandler.handleException(this, event, listeners, index, throwable);
-            throw throwable;
-        }
-        return event;
+    void onListenerException(Event event, EventListener[] listeners, int index, Throwable throwable) {
+        exceptionHandler.handleException(this, event, listeners, index, throwable);
     }
 
     @Override
@@ -371,8 +861,190 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
         LOGGER.error(EVENTBUS, () -> new EventBusErrorMessage(event, index, listeners, throwable));
     }
 
+    boolean isShutdown() {
+        return shutdown;
+    }
+
+    boolean checksTypesOnDispatch() {
+        return checkTypesOnDispatch;
+    }
+
     @Override
     public void start() {
         this.shutdown = false;
     }
+
+    @Override
+    public void freeze() {
+        if (shutdown) {
+            throw new IllegalStateException("Cannot freeze a bus that was not started, start it first.");
+        }
+        if (registrationBatch.get() != null) {
+            throw new IllegalStateException("Cannot freeze a bus from within registerBatch.");
+        }
+        synchronized (listenerListsLock) {
+            if (frozen != null) {
+                return;
+            }
+            // Lists created later don't get new listeners either, and are dispatched through the regular path
+            ListenerList[] lists = listenerLists;
+            var dispatchers = new EventDispatcher[lists.length];
+            var asyncListeners = new EventListener[lists.length][];
+            for (int id = 0; id < lists.length; id++) {
+                if (lists[id] != null) {
+                    dispatchers[id] = lists[id].createFrozenDispatcher();
+                    asyncListeners[id] = lists[id].getAsyncListeners();
+                }
+            }
+            frozen = new FrozenListeners(dispatchers, asyncListeners);
+        }
+    }
+
+    private void checkNotFrozen() {
+        if (frozen != null) {
+            throw new IllegalStateException("Cannot change the listeners of a frozen bus.");
+        }
+    }
+
+    private final class SubscriptionImpl implements Subscription {
+        private final List<RegisteredListener> registered = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicBoolean closed = new AtomicBoolean();
+        /**
+         * Only present for weak registrations, kept reachable by this subscription until its listeners are unregistered.
+         */
+        @Nullable
+        private WeakTarget weakTarget;
+
+        @Override
+        public void close() {
+            checkNotFrozen();
+            if (closed.compareAndSet(false, true)) {
+                unregisterAll(registered);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Subscription" + registered.stream().map(r -> r.registration().listener()).toList();
+        }
+    }
+
+    /**
+     * Enqueued once the weakly registered target is collected, so that its subscription can be closed.
+     */
+    private static final class WeakTarget extends WeakReference<Object> {
+        private final SubscriptionImpl subscription;
+
+        private WeakTarget(Object target, SubscriptionImpl subscription, ReferenceQueue<Object> queue) {
+            super(target, queue);
+            this.subscription = subscription;
+        }
+    }
+
+    /**
+     * The listeners of a frozen bus, indexed by {@link EventTypeIds event type id}.
+     *
+     * @param dispatchers    the dispatcher of each listener list that existed when the bus was frozen
+     * @param asyncListeners the asynchronous listeners of each of these lists
+     */
+    private record FrozenListeners(EventDispatcher[] dispatchers, EventListener[][] asyncListeners) {}
+
+    /**
+     * The listeners created by {@link #prepareTarget(Object, Object)}, not registered yet.
+     *
+     * @param error the exception to throw once the listeners prepared before it are registered, if any
+     */
+    private record PreparedTarget(Object key, List<PreparedListener> listeners, @Nullable RuntimeException error) {}
+
+    private record PreparedListener(Class<?> eventType, SubscribeEventListener listener) {}
+
+    private record RegisteredListener(ListenerList listenerList, ListenerList.Registration registration) {}
+
+    /**
+     * Registrations accumulated per listener list, in registration order.
+     */
+    private static final class RegistrationBatch {
+        private final Map<ListenerList, List<ListenerList.Registration>> pending = new LinkedHashMap<>();
+
+        void add(ListenerList listenerList, ListenerList.Registration registration) {
+            pending.computeIfAbsent(listenerList, k -> new ArrayList<>()).add(registration);
+        }
+
+        void remove(List<RegisteredListener> listeners) {
+            for (RegisteredListener registered : listeners) {
+                var registrations = pending.get(registered.listenerList());
+                if (registrations != null) {
+                    registrations.remove(registered.registration());
+                }
+            }
+        }
+
+        void commit() {
+            pending.forEach((listenerList, registrations) -> {
+                if (!registrations.isEmpty()) {
+                    listenerList.registerAll(registrations);
+                }
+            });
+        }
+    }
+
+    /**
+     * Holds on to the listener list of its event type.
+     * Lists are never replaced once created, so this stays correct when listeners are added or removed later.
+     */
+    private final class Poster<T extends Event> implements EventPoster<T> {
+        private final Class<T> eventType;
+        private final ListenerList listenerList;
+        /**
+         * The dispatcher of the list if the bus was frozen when this poster was created, which never needs to be refreshed.
+         */
+        @Nullable
+        private final EventDispatcher frozenDispatcher;
+        @Nullable
+        private final EventListener[] frozenAsyncListeners;
+
+        private Poster(Class<T> eventType, ListenerList listenerList) {
+            this.eventType = eventType;
+            this.listenerList = listenerList;
+            FrozenListeners frozen = EventBus.this.frozen;
+            if (frozen != null) {
+                int id = EventTypeIds.idOf(eventType);
+                if (id < frozen.dispatchers.length && frozen.dispatchers[id] != null) {
+                    this.frozenDispatcher = frozen.dispatchers[id];
+                    this.frozenAsyncListeners = frozen.asyncListeners[id];
+                } else {
+                    // The list was created after freezing, its listeners still can't change
+                    this.frozenDispatcher = listenerList.getDispatcher();
+                    this.frozenAsyncListeners = listenerList.getAsyncListeners();
+                }
+            } else {
+                this.frozenDispatcher = null;
+                this.frozenAsyncListeners = null;
+            }
+        }
+
+        @Override
+        public T post(T event) {
+            if (event.getClass() != eventType) {
+                // Subclasses have their own listener list
+                return EventBus.this.post(event);
+            }
+            if (frozenDispatcher != null) {
+                frozenDispatcher.dispatch(EventBus.this, event);
+                submitAsyncListeners(frozenAsyncListeners, event);
+                return event;
+            }
+            if (shutdown) {
+                return event;
+            }
+
+            dispatch(listenerList, event);
+            return event;
+        }
+
+        @Override
+        public String toString() {
+            return "EventPoster[" + eventType.getName() + "]";
+        }
+    }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.ICancellableEvent;
+
+/**
+ * Dispatches an event to the listeners of a {@link ListenerList}, in priority order.
+ * <p>
+ * The default implementations loop over the listener array.
+ * {@link EventDispatcherFactory} can generate subclasses that call each listener directly instead.
+ */
+abstract class EventDispatcher {
+    /**
+     * The listeners passed to the exception handler, in dispatch order.
+     */
+    final EventListener[] listeners;
+
+    EventDispatcher(EventListener[] listeners) {
+        this.listeners = listeners;
+    }
+
+    abstract void dispatch(EventBus bus, Event event);
+
+    /**
+     * Dispatches a batch of events, invoking each listener for every event before moving to the next listener.
+     * The cancellation checks are left to the listeners, which are still wrapped.
+     */
+    final void dispatchAll(EventBus bus, List<? extends Event> events) {
+        int index = 0;
+        Event event = null;
+        try {
+            for (; index < listeners.length; index++) {
+                var listener = listeners[index];
+                for (int i = 0; i < events.size(); ++i) {
+                    event = events.get(i);
+                    listener.invoke(event);
+                }
+            }
+        } catch (Throwable throwable) {
+            onException(bus, event, index, throwable);
+            throw throwable;
+        }
+    }
+
+    /**
+     * Called by generated dispatchers when the listener at {@code index} throws.
+     * The caller is responsible for rethrowing the throwable.
+     */
+    final void onException(EventBus bus, Event event, int index, Throwable throwable) {
+        bus.onListenerException(event, listeners, index, throwable);
+    }
+
+    /**
+     * Unwraps the cancellation check of the listeners.
+     *
+     * @param listeners     the listeners, possibly wrapped
+     * @param targets       filled with the listeners without their cancellation check
+     * @param checkCanceled filled with whether a listener should be skipped for canceled events
+     */
+    static void unwrapCancellationChecks(EventListener[] listeners, EventListener[] targets, boolean[] checkCanceled) {
+        for (int i = 0; i < listeners.length; ++i) {
+            if (listeners[i] instanceof IWrapperListener wrapper) {
+                // The only check performed by wrappers is the cancellation check
+                targets[i] = wrapper.getWithoutCheck();
+                checkCanceled[i] = !wrapper.receiveCanceled();
+            } else {
+                targets[i] = listeners[i];
+            }
+        }
+    }
+
+    /**
+     * {@return for each index, the index of the first listener at or after it that receives canceled events}
+     * The length of the array is used if there is no such listener.
+     */
+    static int[] nextReceivingCanceled(boolean[] checkCanceled) {
+        int[] next = new int[checkCanceled.length];
+        int nextReceiving = checkCanceled.length;
+        for (int i = checkCanceled.length - 1; i >= 0; --i) {
+            if (!checkCanceled[i]) {
+                nextReceiving = i;
+            }
+            next[i] = nextReceiving;
+        }
+        return next;
+    }
+
+    static final class Loop extends EventDispatcher {
+        Loop(EventListener[] listeners) {
+            super(listeners);
+        }
+
+        @Override
+        void dispatch(EventBus bus, Event event) {
+            int index = 0;
+            try {
+                for (; index < listeners.length; index++) {
+                    listeners[index].invoke(event);
+                }
+            } catch (Throwable throwable) {
+                onException(bus, event, index, throwable);
+                throw throwable;
+            }
+        }
+    }
+
+    /**
+     * Dispatcher for {@link net.neoforged.bus.api.IConcurrentEvent concurrent events}, which splits the listeners of
+     * each phase across the common {@link ForkJoinPool} and waits for them before moving on to the next phase.
+     */
+    static final class Parallel extends EventDispatcher {
+        /**
+         * Phases with fewer listeners than this are dispatched on the posting thread, forking is not worth it.
+         */
+        static final int SEQUENTIAL_THRESHOLD = 32;
+
+        /**
+         * {@code phaseEnds[i]} is the index after the last listener of phase {@code i}.
+         */
+        private final int[] phaseEnds;
+
+        Parallel(EventListener[] listeners, int[] phaseEnds) {
+            super(listeners);
+            this.phaseEnds = phaseEnds;
+        }
+
+        @Override
+        void dispatch(EventBus bus, Event event) {
+            int start = 0;
+            for (int end : phaseEnds) {
+                if (end - start < SEQUENTIAL_THRESHOLD) {
+                    dispatchSequential(bus, event, start, end);
+                } else {
+                    var failure = new AtomicReference<Failure>();
+                    ForkJoinPool.commonPool().invoke(new Slice(event, start, end, failure));
+                    var failed = failure.get();
+                    if (failed != null) {
+                        onException(bus, event, failed.index, failed.throwable);
+                        if (failed.throwable instanceof RuntimeException e) throw e;
+                        if (failed.throwable instanceof Error e) throw e;
+                        throw new RuntimeException(failed.throwable);
+                    }
+                }
+                start = end;
+            }
+        }
+
+        private void dispatchSequential(EventBus bus, Event event, int start, int end) {
+            int index = start;
+            try {
+                for (; index < end; index++) {
+                    listeners[index].invoke(event);
+                }
+            } catch (Throwable throwable) {
+                onException(bus, event, index, throwable);
+                throw throwable;
+            }
+        }
+
+        private record Failure(int index, Throwable throwable) {}
+
+        // Never serialized, like the dispatcher it belongs to
+        @SuppressWarnings("serial")
+        private final class Slice extends RecursiveAction {
+            private final Event event;
+            private final int start;
+            private final int end;
+            private final AtomicReference<Failure> failure;
+
+            private Slice(Event event, int start, int end, AtomicReference<Failure> failure) {
+                this.event = event;
+                this.start = start;
+                this.end = end;
+                this.failure = failure;
+            }
+
+            @Override
+            protected void compute() {
+                if (end - start <= SEQUENTIAL_THRESHOLD) {
+                    for (int index = start; index < end && failure.get() == null; index++) {
+                        try {
+                            listeners[index].invoke(event);
+                        } catch (Throwable throwable) {
+                            // Only the first failure is reported, the other slices stop early
+                            failure.compareAndSet(null, new Failure(index, throwable));
+                        }
+                    }
+                } else {
+                    int middle = (start + end) >>> 1;
+                    invokeAll(new Slice(event, start, middle, failure), new Slice(event, middle, end, failure));
+                }
+            }
+        }
+    }
+
+    /**
+     * Loop for cancellable events, which skips straight to the next listener receiving canceled events
+     * once the event is canceled, instead of probing the check of every listener in between.
+     */
+    static final class Cancellable extends EventDispatcher {
+        private final EventListener[] targets;
+        private final int[] nextReceivingCanceled;
+
+        Cancellable(EventListener[] listeners) {
+            super(listeners);
+            this.targets = new EventListener[listeners.length];
+            var checkCanceled = new boolean[listeners.length];
+            unwrapCancellationChecks(listeners, targets, checkCanceled);
+            this.nextReceivingCanceled = nextReceivingCanceled(checkCanceled);
+        }
+
+        @Override
+        void dispatch(EventBus bus, Event event) {
+            var cancellable = (ICancellableEvent) event;
+            int index = 0;
+            try {
+                while (index < targets.length) {
+                    if (cancellable.isCanceled()) {
+                        index = nextReceivingCanceled[index];
+                        if (index == targets.length) {
+                            break;
+                        }
+                    }
+                    targets[index].invoke(event);
+                    index++;
+                }
+            } catch (Throwable throwable) {
+                onException(bus, event, index, throwable);
+                throw throwable;
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus;
+
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.ATHROW;
+import static org.objectweb.asm.Opcodes.BIPUSH;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.IFNE;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.ISTORE;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SIPUSH;
+import static org.objectweb.asm.Opcodes.V16;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.ICancellableEvent;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates {@link EventDispatcher} subclasses that invoke each listener of an event type through its own field and call site,
+ * with the cancellation checks unrolled: once the event is canceled, the generated code jumps straight to the next listener
+ * receiving canceled events.
+ * This lets the JIT inline listener bodies that it could not inline through the megamorphic call in {@link EventDispatcher.Loop}.
+ * <p>
+ * The classes are loaded with {@code defineHiddenClass}, like the wrappers generated by {@link EventListenerFactory},
+ * and can be unloaded once their dispatcher is no longer referenced.
+ */
+class EventDispatcherFactory {
+    /**
+     * HotSpot never JIT-compiles methods with more bytecode than this ({@code -XX:HugeMethodLimit}),
+     * a larger dispatcher would stay interpreted and be much slower than {@link EventDispatcher.Loop}.
+     */
+    private static final int HUGE_METHOD_LIMIT = 8000;
+    /**
+     * Bytes of the {@code dispatch} method outside of the listeners: the index initialization, the return and the exception handler.
+     */
+    private static final int DISPATCH_BYTES = 17;
+    /**
+     * Bytes per listener: pushing its index (at most a {@code sipush}), storing it, loading the listener and invoking it.
+     */
+    private static final int LISTENER_BYTES = 12;
+    /**
+     * Bytes of the cancellation check of a listener that does not receive canceled events.
+     */
+    private static final int CANCELLATION_CHECK_BYTES = 12;
+
+    /**
+     * Upper bound on the number of listeners in a generated dispatcher, for which the {@code dispatch} method stays
+     * below {@link #HUGE_METHOD_LIMIT} even if every listener has a cancellation check.
+     */
+    static final int MAX_LISTENERS = maxListeners(true);
+
+    /**
+     * {@return the maximum number of listeners for which the generated {@code dispatch} method can still be JIT-compiled}
+     *
+     * @param cancellable whether the listeners may have a cancellation check
+     */
+    static int maxListeners(boolean cancellable) {
+        return (HUGE_METHOD_LIMIT - DISPATCH_BYTES) / (cancellable ? LISTENER_BYTES + CANCELLATION_CHECK_BYTES : LISTENER_BYTES);
+    }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final String DISPATCHER_DESC = Type.getInternalName(EventDispatcher.class);
+    private static final String LISTENER_DESC = Type.getInternalName(EventListener.class);
+    private static final String LISTENER_TYPE = Type.getDescriptor(EventListener.class);
+    private static final String CANCELLABLE_DESC = Type.getInternalName(ICancellableEvent.class);
+
+    private static final String CONSTRUCTOR_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(EventListener[].class), Type.getType(EventListener[].class));
+    private static final String SUPER_CONSTRUCTOR_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(EventListener[].class));
+    private static final String DISPATCH_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(EventBus.class), Type.getType(Event.class));
+    private static final String ON_EXCEPTION_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(EventBus.class), Type.getType(Event.class), Type.INT_TYPE, Type.getType(Throwable.class));
+    private static final String INVOKE_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Event.class));
+
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(void.class, EventListener[].class, EventListener[].class);
+
+    /**
+     * Creates a dispatcher for the given listeners.
+     *
+     * @param eventClass the event type, only used to name the generated class
+     * @param listeners  the listeners in dispatch order, as reported to the exception handler
+     */
+    static EventDispatcher create(Class<?> eventClass, EventListener[] listeners) {
+        var targets = new EventListener[listeners.length];
+        var checkCanceled = new boolean[listeners.length];
+        EventDispatcher.unwrapCancellationChecks(listeners, targets, checkCanceled);
+
+        try {
+            var classBytes = makeClass(EventDispatcher.class.getName() + "$" + eventClass.getSimpleName(), checkCanceled);
+            var classLookup = LOOKUP.defineHiddenClass(classBytes, true);
+            var constructor = classLookup.findConstructor(classLookup.lookupClass(), CONSTRUCTOR);
+            return (EventDispatcher) constructor.invoke(listeners, targets);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to create dispatcher for " + eventClass, e);
+        }
+    }
+
+    private static byte[] makeClass(String name, boolean[] checkCanceled) {
+        ClassWriter cv = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Frames only ever merge identical types, avoid loading classes from the writer
+                return "java/lang/Object";
+            }
+        };
+
+        String desc = name.replace('.', '/');
+        cv.visit(V16, ACC_PUBLIC | ACC_FINAL, desc, null, DISPATCHER_DESC, null);
+
+        cv.visitSource(".dynamic", null);
+        for (int i = 0; i < checkCanceled.length; ++i) {
+            cv.visitField(ACC_PRIVATE | ACC_FINAL, "listener" + i, LISTENER_TYPE, null, null).visitEnd();
+        }
+        {
+            var mv = cv.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESC, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKESPECIAL, DISPATCHER_DESC, "<init>", SUPER_CONSTRUCTOR_DESC, false);
+            for (int i = 0; i < checkCanceled.length; ++i) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 2);
+                pushInt(mv, i);
+                mv.visitInsn(AALOAD);
+                mv.visitFieldInsn(PUTFIELD, desc, "listener" + i, LISTENER_TYPE);
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        {
+            // Locals: 0 = this, 1 = bus, 2 = event, 3 = index of the current listener, 4 = caught throwable
+            var mv = cv.visitMethod(0, "dispatch", DISPATCH_DESC, null, null);
+            mv.visitCode();
+            var tryStart = new Label();
+            var tryEnd = new Label();
+            var handler = new Label();
+            mv.visitTryCatchBlock(tryStart, tryEnd, handler, "java/lang/Throwable");
+
+            // listenerStarts[i] is the start of the code for listener i, listenerStarts[length] the end
+            var listenerStarts = new Label[checkCanceled.length + 1];
+            for (int i = 0; i < listenerStarts.length; ++i) {
+                listenerStarts[i] = new Label();
+            }
+            var nextReceivingCanceled = EventDispatcher.nextReceivingCanceled(checkCanceled);
+
+            mv.visitInsn(ICONST_0);
+            mv.visitVarInsn(ISTORE, 3);
+            mv.visitLabel(tryStart);
+            for (int i = 0; i < checkCanceled.length; ++i) {
+                mv.visitLabel(listenerStarts[i]);
+                pushInt(mv, i);
+                mv.visitVarInsn(ISTORE, 3);
+                if (checkCanceled[i]) {
+                    mv.visitVarInsn(ALOAD, 2);
+                    mv.visitTypeInsn(CHECKCAST, CANCELLABLE_DESC);
+                    mv.visitMethodInsn(INVOKEINTERFACE, CANCELLABLE_DESC, "isCanceled", "()Z", true);
+                    mv.visitJumpInsn(IFNE, listenerStarts[nextReceivingCanceled[i]]);
+                }
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, desc, "listener" + i, LISTENER_TYPE);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKEVIRTUAL, LISTENER_DESC, "invoke", INVOKE_DESC, false);
+            }
+            mv.visitLabel(listenerStarts[checkCanceled.length]);
+            mv.visitLabel(tryEnd);
+            mv.visitInsn(RETURN);
+
+            mv.visitLabel(handler);
+            mv.visitVarInsn(ASTORE, 4);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitVarInsn(ILOAD, 3);
+            mv.visitVarInsn(ALOAD, 4);
+            mv.visitMethodInsn(INVOKEVIRTUAL, DISPATCHER_DESC, "onException", ON_EXCEPTION_DESC, false);
+            mv.visitVarInsn(ALOAD, 4);
+            mv.visitInsn(ATHROW);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cv.visitEnd();
+
+        return cv.toByteArray();
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else {
+            mv.visitIntInsn(SIPUSH, value);
+        }
+    }
+}
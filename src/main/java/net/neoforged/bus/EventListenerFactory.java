@@ -9,10 +9,14 @@ import static org.objectweb.asm.Opcodes.ACC_FINAL;
 import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ATHROW;
+import static org.objectweb.asm.Opcodes.DUP;
 import static org.objectweb.asm.Opcodes.GETFIELD;
 import static org.objectweb.asm.Opcodes.H_INVOKESTATIC;
 import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.ILOAD;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.NEW;
 import static org.objectweb.asm.Opcodes.PUTFIELD;
 import static org.objectweb.asm.Opcodes.RETURN;
 import static org.objectweb.asm.Opcodes.V16;
@@ -23,18 +27,26 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
 import net.neoforged.bus.api.Event;
 import net.neoforged.bus.api.EventListener;
 import net.neoforged.bus.api.SubscribeEvent;
+import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.ConstantDynamic;
 import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
 import org.objectweb.asm.Type;
 
 /**
  * Manages generation of {@link EventListener} instances from a {@link SubscribeEvent} method,
  * by generating wrapper classes using ASM and loading them with {@code defineHiddenClass}.
  * This mechanism is the same as that used by lambdas.
+ * <p>
+ * By default, one wrapper class is generated per method. With the {@value #SHARED_CLASSES_PROPERTY} system property set to
+ * {@code true}, the methods of a subscriber class share a single wrapper class instead, which selects the method to invoke
+ * from an index stored in each listener. This trades a switch per invocation for far fewer class definitions and less metaspace.
  */
 class EventListenerFactory {
     private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
@@ -47,14 +59,23 @@ class EventListenerFactory {
     private static final MethodType STATIC_HANDLER = MethodType.methodType(void.class, Event.class);
     private static final MethodType INSTANCE_HANDLER = MethodType.methodType(void.class, Object.class, Event.class);
 
+    private static final MethodType SHARED_CONSTRUCTOR = MethodType.methodType(void.class, int.class, Object.class);
+
     private static final MethodType STATIC_CONSTRUCTOR = MethodType.methodType(void.class);
     private static final MethodType INSTANCE_CONSTRUCTOR = MethodType.methodType(void.class, Object.class);
 
     private static final ConstantDynamic METHOD_CONSTANT = new ConstantDynamic(ConstantDescs.DEFAULT_NAME, MethodHandle.class.descriptorString(), new Handle(H_INVOKESTATIC, Type.getInternalName(MethodHandles.class), "classData", MethodType.methodType(Object.class, MethodHandles.Lookup.class, String.class, Class.class).descriptorString(), false));
 
+    private static final Handle CLASS_DATA_AT = new Handle(H_INVOKESTATIC, Type.getInternalName(MethodHandles.class), "classDataAt", MethodType.methodType(Object.class, MethodHandles.Lookup.class, String.class, Class.class, int.class).descriptorString(), false);
+
+    /**
+     * The system property enabling {@linkplain #createSharedWrapper(Class, List) shared wrapper classes}, read when a subscriber class is first registered.
+     */
+    static final String SHARED_CLASSES_PROPERTY = "eventbus.sharedListenerClasses";
+
     private static final LockHelper<Method, MethodHandle> eventListenerFactories = LockHelper.withHashMap();
 
-    private static MethodHandle getEventListenerFactory(Method m) {
+    static MethodHandle getEventListenerFactory(Method m) {
         return eventListenerFactories.computeIfAbsent(m, EventListenerFactory::createWrapper0);
     }
 
@@ -118,11 +139,132 @@ class EventListenerFactory {
         return cv.toByteArray();
     }
 
-    public static EventListener create(Method callback, Object target) {
+    static boolean useSharedClasses() {
+        return Boolean.getBoolean(SHARED_CLASSES_PROPERTY);
+    }
+
+    /**
+     * Generates a single wrapper class able to invoke any of the {@link SubscribeEvent} methods of a class.
+     *
+     * @param owner     the subscriber class, only used to name the generated class
+     * @param callbacks the methods, or {@code null} for the methods that are not valid listeners
+     * @return the constructor of the wrapper class, taking the index of the method in {@code callbacks}
+     *         and the instance to invoke it on, ignored for static methods
+     */
+    static MethodHandle createSharedWrapper(Class<?> owner, List<@Nullable Method> callbacks) {
+        try {
+            var handles = new MethodHandle[callbacks.size()];
+            var isStatic = new boolean[callbacks.size()];
+            for (int i = 0; i < handles.length; ++i) {
+                var callback = callbacks.get(i);
+                if (callback != null) {
+                    callback.setAccessible(true);
+                    isStatic[i] = Modifier.isStatic(callback.getModifiers());
+                    handles[i] = LOOKUP.unreflect(callback).asType(isStatic[i] ? STATIC_HANDLER : INSTANCE_HANDLER);
+                }
+            }
+
+            var classBytes = makeSharedClass(EventListenerFactory.class.getName() + "$" + owner.getSimpleName(), isStatic, handles);
+            // The class data is a list so that each method handle is its own constant
+            var classLookup = LOOKUP.defineHiddenClassWithClassData(classBytes, Arrays.asList(handles), true);
+            return classLookup.findConstructor(classLookup.lookupClass(), SHARED_CONSTRUCTOR);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create listener", e);
+        }
+    }
+
+    private static byte[] makeSharedClass(String name, boolean[] isStatic, MethodHandle[] handles) {
+        ClassWriter cv = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Frames only ever merge identical types, avoid loading classes from the writer
+                return "java/lang/Object";
+            }
+        };
+
+        String desc = name.replace('.', '/');
+        cv.visit(V16, ACC_PUBLIC | ACC_FINAL, desc, null, HANDLER_DESC, null);
+
+        cv.visitSource(".dynamic", null);
+        cv.visitField(ACC_PRIVATE | ACC_FINAL, "index", "I", null, null).visitEnd();
+        cv.visitField(ACC_PRIVATE | ACC_FINAL, "instance", "Ljava/lang/Object;", null, null).visitEnd();
+        {
+            var mv = cv.visitMethod(ACC_PUBLIC, "<init>", "(ILjava/lang/Object;)V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, HANDLER_DESC, "<init>", "()V", false);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ILOAD, 1);
+            mv.visitFieldInsn(PUTFIELD, desc, "index", "I");
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitFieldInsn(PUTFIELD, desc, "instance", "Ljava/lang/Object;");
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        {
+            var mv = cv.visitMethod(ACC_PUBLIC, "invoke", HANDLER_FUNC_DESC, null, null);
+            mv.visitCode();
+            var invalid = new Label();
+            var cases = new Label[handles.length];
+            for (int i = 0; i < cases.length; ++i) {
+                cases[i] = handles[i] != null ? new Label() : invalid;
+            }
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, desc, "index", "I");
+            mv.visitTableSwitchInsn(0, cases.length - 1, invalid, cases);
+            for (int i = 0; i < cases.length; ++i) {
+                if (handles[i] == null) {
+                    continue;
+                }
+                // Each method gets its own constant and call site, as with one class per method
+                mv.visitLabel(cases[i]);
+                mv.visitLdcInsn(new ConstantDynamic(ConstantDescs.DEFAULT_NAME, MethodHandle.class.descriptorString(), CLASS_DATA_AT, i));
+                if (!isStatic[i]) {
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, desc, "instance", "Ljava/lang/Object;");
+                }
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/invoke/MethodHandle", "invokeExact", isStatic[i] ? HANDLER_FUNC_DESC : INSTANCE_FUNC_DESC, false);
+                mv.visitInsn(RETURN);
+            }
+            // Listeners are never created for invalid methods
+            mv.visitLabel(invalid);
+            mv.visitTypeInsn(NEW, "java/lang/IllegalStateException");
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalStateException", "<init>", "()V", false);
+            mv.visitInsn(ATHROW);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cv.visitEnd();
+
+        return cv.toByteArray();
+    }
+
+    /**
+     * {@return a handle to an instance method with type {@code (Object, Event)void}, for listeners that don't bind their target}
+     */
+    static MethodHandle createInstanceHandle(Method callback) {
         try {
-            var factory = getEventListenerFactory(callback);
+            callback.setAccessible(true);
+            return LOOKUP.unreflect(callback).asType(INSTANCE_HANDLER);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create listener", e);
+        }
+    }
+
+    public static EventListener create(Method callback, Object target) {
+        return create(getEventListenerFactory(callback), Modifier.isStatic(callback.getModifiers()), target);
+    }
 
-            if (Modifier.isStatic(callback.getModifiers())) {
+    /**
+     * @param factory the constructor of the wrapper class, as returned by {@link #getEventListenerFactory(Method)}
+     */
+    static EventListener create(MethodHandle factory, boolean isStatic, Object target) {
+        try {
+            if (isStatic) {
                 return (EventListener) factory.invoke();
             } else {
                 return (EventListener) factory.invoke(target);
@@ -131,4 +273,15 @@ class EventListenerFactory {
             throw new RuntimeException("Failed to create IEventListener", e);
         }
     }
+
+    /**
+     * @param factory the constructor of the wrapper class, as returned by {@link #createSharedWrapper(Class, List)}
+     */
+    static EventListener createShared(MethodHandle factory, int index, @Nullable Object target) {
+        try {
+            return (EventListener) factory.invoke(index, target);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to create IEventListener", e);
+        }
+    }
 }
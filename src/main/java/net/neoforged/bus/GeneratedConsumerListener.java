@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus;
+
+import java.util.function.Consumer;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventListener;
+
+/**
+ * Base class for the consumer listeners generated by {@link ConsumerListenerFactory}, which only implement {@link #invoke(Event)}.
+ */
+abstract class GeneratedConsumerListener extends GeneratedEventListener {
+    protected final Consumer<Event> consumer;
+
+    GeneratedConsumerListener(Consumer<Event> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public String toString() {
+        return consumer.toString();
+    }
+
+    /**
+     * Base class for the generated listeners that skip canceled events.
+     */
+    abstract static class Checked extends GeneratedConsumerListener implements IWrapperListener {
+        private final EventListener withoutCheck;
+
+        Checked(Consumer<Event> consumer, EventListener withoutCheck) {
+            super(consumer);
+            this.withoutCheck = withoutCheck;
+        }
+
+        @Override
+        public EventListener getWithoutCheck() {
+            return withoutCheck;
+        }
+    }
+}
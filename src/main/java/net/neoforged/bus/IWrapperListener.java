@@ -14,4 +14,11 @@ import org.jetbrains.annotations.ApiStatus;
 @ApiStatus.Internal
 public interface IWrapperListener {
     EventListener getWithoutCheck();
+
+    /**
+     * {@return whether the wrapped listener is invoked for canceled events, i.e. whether the check is a no-op}
+     */
+    default boolean receiveCanceled() {
+        return false;
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPoster;
+
+/**
+ * Base class for the posters generated by {@link LinkedPosterFactory}, which only implement {@link #post(Event)}.
+ * <p>
+ * The generated {@code post} method checks the event with {@link #prepare(Event)}, dispatches it through an
+ * {@code invokedynamic} instruction bound to the {@link MutableCallSite} of the listener list, then calls {@link #finish(Event)}.
+ */
+abstract class LinkedPoster<T extends Event> implements EventPoster<T> {
+    final EventBus bus;
+    private final Class<T> eventType;
+    private final ListenerList listenerList;
+
+    LinkedPoster(EventBus bus, Class<T> eventType, ListenerList listenerList) {
+        this.bus = bus;
+        this.eventType = eventType;
+        this.listenerList = listenerList;
+    }
+
+    /**
+     * {@return whether the event should be dispatched through the call site}
+     * If not, the event was either posted the regular way or the bus is shut down.
+     */
+    final boolean prepare(T event) {
+        if (event.getClass() != eventType) {
+            // Subclasses have their own listener list
+            bus.post(event);
+            return false;
+        }
+        return bus.prepareLinkedPost();
+    }
+
+    final void finish(T event) {
+        bus.submitAsyncListeners(listenerList.getAsyncListeners(), event);
+    }
+
+    /**
+     * Bootstrap method of the {@code invokedynamic} instruction of the generated classes, whose class data is the call site.
+     */
+    static CallSite bootstrap(MethodHandles.Lookup lookup, String name, MethodType type) throws IllegalAccessException {
+        return MethodHandles.classData(lookup, ConstantDescs.DEFAULT_NAME, MutableCallSite.class);
+    }
+
+    @Override
+    public String toString() {
+        return "EventPoster[" + eventType.getName() + "]";
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus;
+
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.H_INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.IFEQ;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V16;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPoster;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates the {@link EventPoster}s of buses that {@linkplain net.neoforged.bus.api.BusBuilder#relinkOnRegister() relink on register},
+ * one class per listener list, which caches its poster.
+ * <p>
+ * Each class dispatches through an {@code invokedynamic} instruction bound to the {@link MutableCallSite} of its list.
+ * Unlike a call through a {@link java.lang.invoke.MethodHandle} held in a field, the JIT treats the target of the call site
+ * as a constant, so it can inline the current dispatcher and its listeners into the caller of {@link EventPoster#post(Event)}.
+ * It deoptimizes that code when the call site is relinked.
+ */
+class LinkedPosterFactory {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final String BASE_DESC = Type.getInternalName(LinkedPoster.class);
+    private static final String BUS_TYPE = Type.getDescriptor(EventBus.class);
+    private static final String CONSTRUCTOR_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(EventBus.class), Type.getType(Class.class), Type.getType(ListenerList.class));
+    private static final String POST_DESC = Type.getMethodDescriptor(Type.getType(Event.class), Type.getType(Event.class));
+    private static final String PREPARE_DESC = Type.getMethodDescriptor(Type.BOOLEAN_TYPE, Type.getType(Event.class));
+    private static final String FINISH_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Event.class));
+    private static final String DISPATCH_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(EventBus.class), Type.getType(Event.class));
+
+    private static final Handle BOOTSTRAP = new Handle(H_INVOKESTATIC, BASE_DESC, "bootstrap", MethodType.methodType(CallSite.class, MethodHandles.Lookup.class, String.class, MethodType.class).descriptorString(), false);
+
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(void.class, EventBus.class, Class.class, ListenerList.class);
+
+    @SuppressWarnings("unchecked")
+    static <T extends Event> EventPoster<T> create(EventBus bus, Class<T> eventType, ListenerList listenerList) {
+        try {
+            var classBytes = makeClass(LinkedPoster.class.getName() + "$" + eventType.getSimpleName());
+            var classLookup = LOOKUP.defineHiddenClassWithClassData(classBytes, listenerList.getCallSite(), true);
+            var constructor = classLookup.findConstructor(classLookup.lookupClass(), CONSTRUCTOR);
+            return (EventPoster<T>) constructor.invoke(bus, eventType, listenerList);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to create poster for " + eventType, e);
+        }
+    }
+
+    private static byte[] makeClass(String name) {
+        ClassWriter cv = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Frames only ever merge identical types, avoid loading classes from the writer
+                return "java/lang/Object";
+            }
+        };
+
+        String desc = name.replace('.', '/');
+        cv.visit(V16, ACC_PUBLIC | ACC_FINAL, desc, null, BASE_DESC, null);
+
+        cv.visitSource(".dynamic", null);
+        {
+            var mv = cv.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESC, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitMethodInsn(INVOKESPECIAL, BASE_DESC, "<init>", CONSTRUCTOR_DESC, false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        {
+            var mv = cv.visitMethod(ACC_PUBLIC, "post", POST_DESC, null, null);
+            mv.visitCode();
+            var done = new Label();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEVIRTUAL, BASE_DESC, "prepare", PREPARE_DESC, false);
+            mv.visitJumpInsn(IFEQ, done);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, BASE_DESC, "bus", BUS_TYPE);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitInvokeDynamicInsn("dispatch", DISPATCH_DESC, BOOTSTRAP);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEVIRTUAL, BASE_DESC, "finish", FINISH_DESC, false);
+            mv.visitLabel(done);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cv.visitEnd();
+
+        return cv.toByteArray();
+    }
+}
@@ -16,71 +16,95 @@
 
 package net.neoforged.bus;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import net.neoforged.bus.api.Event;
 import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.EventPoster;
 import net.neoforged.bus.api.EventPriority;
 import net.neoforged.bus.api.ICancellableEvent;
+import net.neoforged.bus.api.IConcurrentEvent;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * The listeners of one event type, including the listeners inherited from its parent event type.
+ * <p>
+ * All state lives in an immutable {@link Snapshot}, which writers replace with a single compare-and-set,
+ * retrying if another writer got there first.
+ * Readers never block: they read the current snapshot, and build its dispatchers on first use.
+ */
 @ApiStatus.Internal
 public class ListenerList {
     private static final EventPriority[] PRIORITIES = EventPriority.values();
+    private static final MethodType DISPATCH_TYPE = MethodType.methodType(void.class, EventBus.class, Event.class);
+    private static final MethodHandle DISPATCH;
+    private static final MethodHandle RELINK_AND_DISPATCH;
+    private static final EventListener[] NO_LISTENERS = new EventListener[0];
 
-    private boolean rebuild = true;
-    private final AtomicReference<EventListener[]> listeners = new AtomicReference<>();
-    private final AtomicReference<EventListener[][]> perPhaseListeners = new AtomicReference<>();
-    private final ArrayList<ArrayList<EventListener>> priorities;
+    static {
+        try {
+            DISPATCH = MethodHandles.lookup().findVirtual(EventDispatcher.class, "dispatch", DISPATCH_TYPE);
+            RELINK_AND_DISPATCH = MethodHandles.lookup().findVirtual(ListenerList.class, "relinkAndDispatch", DISPATCH_TYPE);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final AtomicReference<Snapshot> snapshot;
+    private final Class<?> eventClass;
     @Nullable
     private final ListenerList parent;
-    private List<ListenerList> children;
-    private final Semaphore writeLock = new Semaphore(1, true);
+    private final List<ListenerList> children = new CopyOnWriteArrayList<>();
     private final boolean canUnwrapListeners;
+    private final boolean concurrent;
     private final boolean buildPerPhaseList;
+    private final int maxGeneratedDispatcherSize;
+    /**
+     * Only present if this list relinks on register, in which case its target is either the current dispatcher,
+     * or {@link #relinkAndDispatch(EventBus, Event)} if the listeners changed since it was last linked.
+     */
+    @Nullable
+    private final MutableCallSite callSite;
+    /**
+     * The poster generated for the call site by {@link LinkedPosterFactory}, created by the first {@link #getLinkedPoster} call.
+     */
+    @Nullable
+    private volatile EventPoster<?> linkedPoster;
 
-    ListenerList(Class<?> eventClass, boolean buildPerPhaseList) {
-        this(eventClass, null, buildPerPhaseList);
-    }
-
-    ListenerList(Class<?> eventClass, @Nullable ListenerList parent, boolean buildPerPhaseList) {
-        int count = PRIORITIES.length;
-        priorities = new ArrayList<>(count);
-
-        for (int x = 0; x < count; x++) {
-            priorities.add(new ArrayList<>());
-        }
+    ListenerList(Class<?> eventClass, @Nullable ListenerList parent, boolean buildPerPhaseList, int maxGeneratedDispatcherSize, boolean relinkOnRegister) {
+        this.eventClass = eventClass;
 
         // Unwrap if the event is not cancellable
         canUnwrapListeners = !ICancellableEvent.class.isAssignableFrom(eventClass);
+        concurrent = IConcurrentEvent.class.isAssignableFrom(eventClass);
         this.buildPerPhaseList = buildPerPhaseList;
+        this.maxGeneratedDispatcherSize = maxGeneratedDispatcherSize;
 
+        var own = new EventListener[PRIORITIES.length][];
+        Arrays.fill(own, NO_LISTENERS);
         this.parent = parent;
+        this.snapshot = new AtomicReference<>(derive(own, NO_LISTENERS, null));
         if (parent != null) {
-            parent.addChild(this);
+            // Registered as a child first, so that concurrent changes of the parent are propagated to this list
+            parent.children.add(this);
+            update(UnaryOperator.identity());
         }
-    }
 
-    /**
-     * Returns a ArrayList containing all listeners for this event,
-     * and all parent events for the specified priority.
-     * <p>
-     * The list is returned with the listeners for the children events first.
-     *
-     * @param priority The Priority to get
-     * @return ArrayList containing listeners
-     */
-    private ArrayList<EventListener> getListeners(EventPriority priority) {
-        writeLock.acquireUninterruptibly();
-        ArrayList<EventListener> ret = new ArrayList<>(priorities.get(priority.ordinal()));
-        writeLock.release();
-        if (parent != null) {
-            ret.addAll(parent.getListeners(priority));
+        if (relinkOnRegister) {
+            callSite = new MutableCallSite(DISPATCH_TYPE);
+            unlink();
+        } else {
+            callSite = null;
         }
-        return ret;
     }
 
     /**
@@ -88,89 +112,376 @@ public class ListenerList {
      * Including all parent listeners.
      * <p>
      * List is returned in proper priority order.
-     * <p>
-     * Automatically rebuilds the internal Array cache if its information is out of date.
      */
     public EventListener[] getListeners() {
-        if (shouldRebuild()) buildCache();
-        return listeners.get();
+        return getDispatcher().listeners;
     }
 
     public EventListener[] getPhaseListeners(EventPriority phase) {
+        return getPhaseDispatcher(phase).listeners;
+    }
+
+    /**
+     * {@return the listeners of each phase, indexed by {@link EventPriority#ordinal()}}
+     */
+    EventListener[][] getListenersByPhase() {
+        return snapshot.get().phases;
+    }
+
+    /**
+     * {@return the asynchronous listeners for this event and its parent events, with the listeners for the children events first}
+     * The listeners are still wrapped in their cancellation check.
+     */
+    EventListener[] getAsyncListeners() {
+        return snapshot.get().async;
+    }
+
+    /**
+     * {@return whether there is any listener for this event, including listeners of parent events}
+     */
+    public boolean hasListeners() {
+        return !snapshot.get().empty;
+    }
+
+    /**
+     * {@return the dispatcher for all listeners of this event, building it if the listeners changed}
+     */
+    EventDispatcher getDispatcher() {
+        var current = snapshot.get();
+        var dispatcher = current.dispatcher.get();
+        if (dispatcher == null) {
+            dispatcher = createDispatcher(current);
+            // Another poster may have built the dispatcher of this snapshot in the meantime, use the published one
+            if (!current.dispatcher.compareAndSet(null, dispatcher)) {
+                dispatcher = current.dispatcher.get();
+            }
+        }
+        return dispatcher;
+    }
+
+    EventDispatcher getPhaseDispatcher(EventPriority phase) {
         if (!buildPerPhaseList) {
             throw new IllegalStateException("buildPerPhaseList is false!");
         }
 
-        if (shouldRebuild()) buildCache();
-        return perPhaseListeners.get()[phase.ordinal()];
+        var current = snapshot.get();
+        var dispatchers = current.perPhaseDispatchers.get();
+        if (dispatchers == null) {
+            dispatchers = new EventDispatcher[PRIORITIES.length];
+            for (int i = 0; i < PRIORITIES.length; i++) {
+                dispatchers[i] = createPhaseDispatcher(current.phases[i]);
+            }
+            if (!current.perPhaseDispatchers.compareAndSet(null, dispatchers)) {
+                dispatchers = current.perPhaseDispatchers.get();
+            }
+        }
+        return dispatchers[phase.ordinal()];
     }
 
-    protected boolean shouldRebuild() {
-        return rebuild;
+    /**
+     * {@return the call site with type {@code (EventBus, Event)void} that is relinked to the current dispatcher}
+     * Only available if relinking on register was enabled.
+     * Where the call site is constant, as in the posters generated by {@link LinkedPosterFactory},
+     * the JIT treats the current dispatcher as a constant too and deoptimizes when it is relinked.
+     */
+    MutableCallSite getCallSite() {
+        if (callSite == null) {
+            throw new IllegalStateException("relinkOnRegister is false!");
+        }
+        return callSite;
     }
 
-    protected void forceRebuild() {
-        this.rebuild = true;
-        if (this.children != null) {
-            synchronized (this.children) {
-                for (ListenerList child : this.children)
-                    child.forceRebuild();
+    /**
+     * {@return the poster dispatching through the call site of this list, generated once per list}
+     *
+     * @param bus       the bus owning this list
+     * @param eventType the event type of this list
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Event> EventPoster<T> getLinkedPoster(EventBus bus, Class<T> eventType) {
+        var poster = linkedPoster;
+        if (poster == null) {
+            synchronized (this) {
+                poster = linkedPoster;
+                if (poster == null) {
+                    poster = LinkedPosterFactory.create(bus, eventType, this);
+                    linkedPoster = poster;
+                }
             }
         }
+        return (EventPoster<T>) poster;
+    }
+
+    /**
+     * Target of the call site once the listeners changed: links the call site to the current dispatcher, then dispatches.
+     * Relinking on the first post rather than on every change avoids building dispatchers that are never used,
+     * for example while many listeners are registered in a row.
+     */
+    private void relinkAndDispatch(EventBus bus, Event event) {
+        EventDispatcher dispatcher;
+        synchronized (this) {
+            // Synchronized with unlink(), so that a dispatcher read before a change is never linked after it
+            dispatcher = getDispatcher();
+            callSite.setTarget(DISPATCH.bindTo(dispatcher));
+            MutableCallSite.syncAll(new MutableCallSite[] { callSite });
+        }
+        dispatcher.dispatch(bus, event);
     }
 
-    private void addChild(ListenerList child) {
-        if (this.children == null)
-            this.children = Collections.synchronizedList(new ArrayList<>(2));
-        this.children.add(child);
+    /**
+     * Points the call site back to {@link #relinkAndDispatch(EventBus, Event)}, after the listeners changed.
+     */
+    private synchronized void unlink() {
+        callSite.setTarget(RELINK_AND_DISPATCH.bindTo(this));
+        MutableCallSite.syncAll(new MutableCallSite[] { callSite });
     }
 
     /**
-     * Rebuild the local Array of listeners, returns early if there is no work to do.
+     * Publishes a new snapshot with the own listeners changed by {@code change}, and the inherited listeners
+     * taken from the current snapshot of the parent, then propagates the change to the children.
+     * <p>
+     * If the parent changed while the snapshot was being derived, the snapshot is derived again,
+     * so that the last update always sees the latest listeners of the parent.
      */
-    private void buildCache() {
-        if (parent != null && parent.shouldRebuild()) {
-            parent.buildCache();
+    private void update(UnaryOperator<Snapshot> change) {
+        while (true) {
+            var current = snapshot.get();
+            var changed = change.apply(current);
+            var parentSnapshot = parent == null ? null : parent.snapshot.get();
+            var next = derive(changed.own, changed.ownAsync, parentSnapshot);
+            if (!snapshot.compareAndSet(current, next)) {
+                continue;
+            }
+            if (parent != null && parent.snapshot.get() != parentSnapshot) {
+                // Keep the change of our own listeners, and pick up the new listeners of the parent
+                change = UnaryOperator.identity();
+                continue;
+            }
+            break;
         }
-        ArrayList<EventListener> ret = new ArrayList<>();
-        EventListener[][] perPhaseListeners = buildPerPhaseList ? new EventListener[PRIORITIES.length][] : null;
 
-        for (EventPriority phase : PRIORITIES) {
-            var phaseListeners = getListeners(phase);
-            unwrapListeners(phaseListeners);
-            ret.addAll(phaseListeners);
+        if (this.callSite != null) {
+            unlink();
+        }
+        for (ListenerList child : children) {
+            child.update(UnaryOperator.identity());
+        }
+    }
 
-            if (perPhaseListeners != null) {
-                perPhaseListeners[phase.ordinal()] = phaseListeners.toArray(EventListener[]::new);
-            }
+    /**
+     * Derives the inherited listeners: for each phase, the (unwrapped) listeners of this list followed by those of the parent.
+     * Only the arrays are copied, so a change costs one copy per list below the changed one.
+     */
+    private Snapshot derive(EventListener[][] own, EventListener[] ownAsync, @Nullable Snapshot parentSnapshot) {
+        var phases = new EventListener[PRIORITIES.length][];
+        for (int phase = 0; phase < PRIORITIES.length; phase++) {
+            var inherited = parentSnapshot == null ? NO_LISTENERS : parentSnapshot.phases[phase];
+            var phaseListeners = Arrays.copyOf(own[phase], own[phase].length + inherited.length);
+            unwrapListeners(phaseListeners, own[phase].length);
+            System.arraycopy(inherited, 0, phaseListeners, own[phase].length, inherited.length);
+            phases[phase] = phaseListeners;
+        }
+        return new Snapshot(own, ownAsync, phases, concat(ownAsync, parentSnapshot == null ? NO_LISTENERS : parentSnapshot.async));
+    }
+
+    private static EventListener[] concat(EventListener[] first, EventListener[] second) {
+        if (second.length == 0) {
+            return first;
+        }
+        var ret = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, ret, first.length, second.length);
+        return ret;
+    }
+
+    /**
+     * {@return a dispatcher for the current listeners, generated regardless of the configured maximum since it will be used for good}
+     * Used once the bus is frozen, after which the listeners never change.
+     * Lists with too many listeners for the generated method to be JIT-compiled still use a loop dispatcher.
+     */
+    EventDispatcher createFrozenDispatcher() {
+        return createDispatcher(snapshot.get(), EventDispatcherFactory.maxListeners(!canUnwrapListeners));
+    }
+
+    private EventDispatcher createDispatcher(Snapshot snapshot) {
+        return createDispatcher(snapshot, maxGeneratedDispatcherSize);
+    }
+
+    private EventDispatcher createDispatcher(Snapshot snapshot, int maxGeneratedDispatcherSize) {
+        int count = 0;
+        for (var phaseListeners : snapshot.phases) {
+            count += phaseListeners.length;
         }
+        var listeners = new EventListener[count];
+        int[] phaseEnds = new int[PRIORITIES.length];
 
-        this.listeners.set(ret.toArray(new EventListener[0]));
-        this.perPhaseListeners.set(perPhaseListeners);
+        int start = 0;
+        for (int phase = 0; phase < PRIORITIES.length; phase++) {
+            var phaseListeners = snapshot.phases[phase];
+            System.arraycopy(phaseListeners, 0, listeners, start, phaseListeners.length);
+            start += phaseListeners.length;
+            phaseEnds[phase] = start;
+        }
+
+        if (concurrent) {
+            return new EventDispatcher.Parallel(listeners, phaseEnds);
+        }
+        if (listeners.length > 0 && listeners.length <= maxGeneratedDispatcherSize) {
+            return EventDispatcherFactory.create(eventClass, listeners);
+        }
+        return createLoopDispatcher(listeners);
+    }
+
+    private EventDispatcher createPhaseDispatcher(EventListener[] listeners) {
+        if (concurrent) {
+            return new EventDispatcher.Parallel(listeners, new int[] { listeners.length });
+        }
+        return createLoopDispatcher(listeners);
+    }
 
-        rebuild = false;
+    private EventDispatcher createLoopDispatcher(EventListener[] listeners) {
+        // Cancellable events keep their wrapped listeners, let the dispatcher skip the canceled ones
+        return canUnwrapListeners ? new EventDispatcher.Loop(listeners) : new EventDispatcher.Cancellable(listeners);
     }
 
-    private void unwrapListeners(List<EventListener> ret) {
+    private void unwrapListeners(EventListener[] listeners, int count) {
         if (canUnwrapListeners) {
-            for (int i = 0; i < ret.size(); ++i) {
-                if (ret.get(i) instanceof IWrapperListener wrapper) {
-                    ret.set(i, wrapper.getWithoutCheck());
+            for (int i = 0; i < count; ++i) {
+                if (listeners[i] instanceof IWrapperListener wrapper) {
+                    listeners[i] = wrapper.getWithoutCheck();
                 }
             }
         }
     }
 
     public void register(EventPriority priority, EventListener listener) {
-        writeLock.acquireUninterruptibly();
-        priorities.get(priority.ordinal()).add(listener);
-        writeLock.release();
-        this.forceRebuild();
+        int phase = priority.ordinal();
+        update(current -> {
+            var own = current.own.clone();
+            own[phase] = concat(own[phase], new EventListener[] { listener });
+            return current.withOwn(own, current.ownAsync);
+        });
+    }
+
+    /**
+     * Registers several listeners at once, publishing a single snapshot and propagating it to the children once.
+     */
+    void registerAll(List<Registration> registrations) {
+        update(current -> {
+            var own = current.own.clone();
+            var ownAsync = current.ownAsync;
+            var added = new ArrayList<List<EventListener>>(PRIORITIES.length);
+            for (int phase = 0; phase < PRIORITIES.length; phase++) {
+                added.add(new ArrayList<>());
+            }
+            var addedAsync = new ArrayList<EventListener>();
+            for (var registration : registrations) {
+                if (registration.priority() == null) {
+                    addedAsync.add(registration.listener());
+                } else {
+                    added.get(registration.priority().ordinal()).add(registration.listener());
+                }
+            }
+            for (int phase = 0; phase < PRIORITIES.length; phase++) {
+                own[phase] = concat(own[phase], added.get(phase).toArray(NO_LISTENERS));
+            }
+            return current.withOwn(own, concat(ownAsync, addedAsync.toArray(NO_LISTENERS)));
+        });
     }
 
-    public void unregister(EventListener listener) {
-        writeLock.acquireUninterruptibly();
-        priorities.stream().filter(list -> list.remove(listener)).forEach(list -> this.forceRebuild());
-        writeLock.release();
+    /**
+     * Registers a listener that is invoked asynchronously after the other listeners.
+     */
+    void registerAsync(EventListener listener) {
+        update(current -> current.withOwn(current.own, concat(current.ownAsync, new EventListener[] { listener })));
+    }
+
+    /**
+     * Unregisters listeners from the phase they were registered to, publishing a single snapshot.
+     */
+    void unregisterAll(List<Registration> registrations) {
+        update(current -> {
+            var own = current.own.clone();
+            var ownAsync = current.ownAsync;
+            for (var registration : registrations) {
+                if (registration.priority() == null) {
+                    ownAsync = without(ownAsync, registration.listener());
+                } else {
+                    int phase = registration.priority().ordinal();
+                    own[phase] = without(own[phase], registration.listener());
+                }
+            }
+            return current.withOwn(own, ownAsync);
+        });
+    }
+
+    private static int indexOf(EventListener[] listeners, EventListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static EventListener[] without(EventListener[] listeners, EventListener listener) {
+        int index = indexOf(listeners, listener);
+        if (index == -1) {
+            return listeners;
+        }
+        var ret = new EventListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, ret, 0, index);
+        System.arraycopy(listeners, index + 1, ret, index, ret.length - index);
+        return ret;
+    }
+
+    /**
+     * A listener to register, with a {@code null} priority for asynchronous listeners.
+     */
+    record Registration(@Nullable EventPriority priority, EventListener listener) {}
+
+    /**
+     * An immutable version of the listeners of this list. The dispatchers are built lazily, at most once per version
+     * unless several threads race to build them, in which case the first one to be published wins.
+     *
+     * @param own                 the listeners registered to this list, per phase, as registered
+     * @param ownAsync            the asynchronous listeners registered to this list
+     * @param phases              the listeners of this list followed by those of the parent, per phase, unwrapped if possible
+     * @param async               the asynchronous listeners of this list followed by those of the parent
+     * @param dispatcher          the dispatcher for {@code phases}, once built
+     * @param perPhaseDispatchers the dispatchers for each of the {@code phases}, once built
+     */
+    private record Snapshot(
+            EventListener[][] own,
+            EventListener[] ownAsync,
+            EventListener[][] phases,
+            EventListener[] async,
+            AtomicReference<EventDispatcher> dispatcher,
+            AtomicReference<EventDispatcher[]> perPhaseDispatchers,
+            boolean empty) {
+        Snapshot(EventListener[][] own, EventListener[] ownAsync, EventListener[][] phases, EventListener[] async) {
+            this(own, ownAsync, phases, async, new AtomicReference<>(), new AtomicReference<>(), isEmpty(phases, async));
+        }
+
+        /**
+         * Computed once per snapshot, since {@link #hasListeners()} is called on every {@link EventBus#post(Class, java.util.function.Supplier)}.
+         */
+        private static boolean isEmpty(EventListener[][] phases, EventListener[] async) {
+            if (async.length != 0) {
+                return false;
+            }
+            for (var phaseListeners : phases) {
+                if (phaseListeners.length != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * {@return a snapshot with other own listeners, whose inherited listeners still need to be derived}
+         */
+        Snapshot withOwn(EventListener[][] own, EventListener[] ownAsync) {
+            return new Snapshot(own, ownAsync, phases, async);
+        }
     }
 }
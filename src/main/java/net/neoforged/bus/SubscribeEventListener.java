@@ -32,28 +32,51 @@ import org.jetbrains.annotations.ApiStatus;
 @ApiStatus.Internal
 public final class SubscribeEventListener extends EventListener implements IWrapperListener {
     private final EventListener handler;
-    private final SubscribeEvent subInfo;
+    private final EventPriority priority;
+    private final boolean receiveCanceled;
+    private final boolean async;
     private final String readable;
 
     public SubscribeEventListener(Object target, Method method) {
-        handler = EventListenerFactory.create(method, target);
+        this(EventListenerFactory.create(method, target), target, new SubscriberClass.SubscriberMethod(method));
+    }
+
+    /**
+     * @param handler the handler invoking the method, which does not need to hold on to {@code target}
+     */
+    SubscribeEventListener(EventListener handler, Object target, SubscriberClass.SubscriberMethod method) {
+        this.handler = handler;
+        this.priority = method.priority;
+        this.receiveCanceled = method.receiveCanceled;
+        this.async = method.async;
+        readable = "@SubscribeEvent: " + target + " " + method.description;
+    }
 
-        subInfo = method.getAnnotation(SubscribeEvent.class);
-        readable = "@SubscribeEvent: " + target + " " + method.getName() + getMethodDescriptor(method);
+    static String describe(Method method) {
+        return method.getName() + getMethodDescriptor(method);
     }
 
     @Override
     public void invoke(Event event) {
         if (handler != null) {
             // The cast is safe because the check is removed if the event is not cancellable
-            if (subInfo.receiveCanceled() || !((ICancellableEvent) event).isCanceled()) {
+            if (receiveCanceled || !((ICancellableEvent) event).isCanceled()) {
                 handler.invoke(event);
             }
         }
     }
 
     public EventPriority getPriority() {
-        return subInfo.priority();
+        return priority;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    @Override
+    public boolean receiveCanceled() {
+        return receiveCanceled;
     }
 
     @Override
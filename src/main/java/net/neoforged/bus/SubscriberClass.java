@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventListener;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.bus.api.SubscriberIndex;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The {@link SubscribeEvent} methods of a class, found and validated once per class
+ * and shared by every registration of the class or of its instances.
+ * <p>
+ * Validation errors are kept as messages and only thrown when registering,
+ * so that each registration fails with its own stack trace.
+ * <p>
+ * Classes with a {@link SubscriberIndex} generated at compile time are not inspected at all: their methods were validated
+ * by the annotation processor, and the index creates their listeners.
+ * Otherwise, if {@linkplain EventListenerFactory#useSharedClasses() enabled}, the listeners of all the methods of the class
+ * share a single generated wrapper class.
+ */
+final class SubscriberClass {
+    private static final ClassValue<SubscriberClass> CACHE = new ClassValue<>() {
+        @Override
+        protected SubscriberClass computeValue(Class<?> type) {
+            return new SubscriberClass(type);
+        }
+    };
+
+    /**
+     * The reason why the class can't be registered because of its supertypes, if any.
+     */
+    @Nullable
+    final String supertypeError;
+    /**
+     * The annotated methods declared by the class, static or not.
+     */
+    final List<SubscriberMethod> methods;
+    private final Class<?> type;
+    /**
+     * The constructor of the wrapper class shared by the methods, generated on first use.
+     */
+    @Nullable
+    private volatile MethodHandle sharedFactory;
+
+    private SubscriberClass(Class<?> type) {
+        this.type = type;
+        var methods = new ArrayList<SubscriberMethod>();
+        SubscriberIndex index = loadIndex(type);
+        if (index != null) {
+            supertypeError = null;
+            for (int i = 0; i < index.entries().size(); i++) {
+                methods.add(new SubscriberMethod(type, index, i));
+            }
+        } else {
+            supertypeError = checkSupertypes(type, type);
+            var owner = EventListenerFactory.useSharedClasses() ? this : null;
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(SubscribeEvent.class)) {
+                    methods.add(new SubscriberMethod(method, owner, methods.size()));
+                }
+            }
+        }
+        this.methods = List.copyOf(methods);
+    }
+
+    static SubscriberClass of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * {@return the index generated for the class, or {@code null} if there is none or it is not accessible}
+     */
+    @Nullable
+    private static SubscriberIndex loadIndex(Class<?> type) {
+        if (type.isHidden() || type.isArray() || type.isPrimitive()) {
+            return null;
+        }
+        try {
+            Class<?> indexClass = Class.forName(type.getName() + SubscriberIndex.SUFFIX, true, type.getClassLoader());
+            if (!SubscriberIndex.class.isAssignableFrom(indexClass)) {
+                return null;
+            }
+            return (SubscriberIndex) indexClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Not indexed, or not exported to the bus: use reflection
+            return null;
+        }
+    }
+
+    private MethodHandle sharedFactory() {
+        var factory = this.sharedFactory;
+        if (factory == null) {
+            synchronized (this) {
+                factory = this.sharedFactory;
+                if (factory == null) {
+                    var callbacks = new ArrayList<Method>(methods.size());
+                    for (SubscriberMethod method : methods) {
+                        callbacks.add(method.error == null ? method.method : null);
+                    }
+                    this.sharedFactory = factory = EventListenerFactory.createSharedWrapper(type, callbacks);
+                }
+            }
+        }
+        return factory;
+    }
+
+    @Nullable
+    private static String checkSupertypes(Class<?> registeredType, Class<?> type) {
+        if (type == null || type == Object.class) {
+            return null;
+        }
+
+        if (type != registeredType) {
+            for (var method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(SubscribeEvent.class)) {
+                    return """
+                            Attempting to register a listener object of type %s,
+                            however its supertype %s has a @SubscribeEvent method: %s.
+                            This is not allowed! Only the listener object can have @SubscribeEvent methods.
+                            """.formatted(registeredType, type, method);
+                }
+            }
+        }
+
+        String error = checkSupertypes(registeredType, type.getSuperclass());
+        for (Class<?> itf : type.getInterfaces()) {
+            if (error != null) {
+                break;
+            }
+            error = checkSupertypes(registeredType, itf);
+        }
+        return error;
+    }
+
+    /**
+     * A {@link SubscribeEvent} method, with what is needed to bind it to a target.
+     * The method is either found by reflection, or described by an entry of a {@link SubscriberIndex}.
+     */
+    static final class SubscriberMethod {
+        private final Class<?> declaringClass;
+        /**
+         * The reflected method, {@code null} if the method is indexed.
+         */
+        @Nullable
+        private final Method method;
+        @Nullable
+        private final SubscriberIndex index;
+        /**
+         * The class whose shared wrapper class creates the handlers, if any.
+         */
+        @Nullable
+        private final SubscriberClass owner;
+        /**
+         * The position of the method in the index or in the methods of {@link #owner}.
+         */
+        private final int position;
+        final boolean isStatic;
+        final EventPriority priority;
+        final boolean receiveCanceled;
+        final boolean async;
+        /**
+         * The name and descriptor of the method, for {@link SubscribeEventListener#toString()}.
+         */
+        final String description;
+        /**
+         * The event type of the method, or {@code null} if it does not take a single event.
+         */
+        @Nullable
+        final Class<?> eventType;
+        /**
+         * The reason why the method is not a valid listener, if any.
+         */
+        @Nullable
+        final String error;
+        @Nullable
+        private volatile MethodHandle factory;
+        @Nullable
+        private volatile MethodHandle instanceHandle;
+
+        SubscriberMethod(Class<?> declaringClass, SubscriberIndex index, int position) {
+            var entry = index.entries().get(position);
+            this.declaringClass = declaringClass;
+            this.method = null;
+            this.index = index;
+            this.owner = null;
+            this.position = position;
+            this.isStatic = entry.isStatic();
+            this.priority = entry.priority();
+            this.receiveCanceled = entry.receiveCanceled();
+            this.async = entry.async();
+            this.description = entry.name() + entry.descriptor();
+            this.eventType = entry.eventType();
+            this.error = null;
+        }
+
+        SubscriberMethod(Method method) {
+            this(method, null, -1);
+        }
+
+        private SubscriberMethod(Method method, @Nullable SubscriberClass owner, int position) {
+            var info = method.getAnnotation(SubscribeEvent.class);
+            this.declaringClass = method.getDeclaringClass();
+            this.method = method;
+            this.index = null;
+            this.owner = owner;
+            this.position = position;
+            this.isStatic = Modifier.isStatic(method.getModifiers());
+            this.priority = info.priority();
+            this.receiveCanceled = info.receiveCanceled();
+            this.async = info.async();
+            this.description = SubscribeEventListener.describe(method);
+
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length != 1) {
+                eventType = null;
+                error = "Method " + method + " has @SubscribeEvent annotation. " +
+                        "It has " + parameterTypes.length + " arguments, " +
+                        "but event handler methods require a single argument only.";
+            } else if (!Event.class.isAssignableFrom(parameterTypes[0])) {
+                eventType = null;
+                error = "Method " + method + " has @SubscribeEvent annotation, " +
+                        "but takes an argument that is not an Event subtype : " + parameterTypes[0];
+            } else {
+                eventType = parameterTypes[0];
+                error = null;
+            }
+        }
+
+        /**
+         * {@return a handler invoking the method on {@code target}, which is ignored for static methods}
+         */
+        EventListener createHandler(Object target) {
+            if (index != null) {
+                return index.create(position, target);
+            }
+            if (owner != null) {
+                return EventListenerFactory.createShared(owner.sharedFactory(), position, isStatic ? null : target);
+            }
+            var factory = this.factory;
+            if (factory == null) {
+                // Racing threads get the same factory from the cache of the factory
+                this.factory = factory = EventListenerFactory.getEventListenerFactory(method);
+            }
+            return EventListenerFactory.create(factory, isStatic, target);
+        }
+
+        /**
+         * Invokes the instance method on {@code target} once.
+         */
+        void invoke(Object target, Event event) throws Throwable {
+            if (index != null) {
+                index.invoke(position, target, event);
+                return;
+            }
+            var handle = this.instanceHandle;
+            if (handle == null) {
+                this.instanceHandle = handle = EventListenerFactory.createInstanceHandle(method);
+            }
+            handle.invokeExact(target, event);
+        }
+
+        @Override
+        public String toString() {
+            return method != null ? method.toString() : declaringClass.getName() + "." + description;
+        }
+    }
+}
@@ -5,6 +5,7 @@
 
 package net.neoforged.bus.api;
 
+import java.util.concurrent.Executor;
 import net.neoforged.bus.BusBuilderImpl;
 
 /**
@@ -70,6 +71,52 @@ public interface BusBuilder {
      */
     BusBuilder allowPerPhasePost();
 
+    /**
+     * Generate a dedicated dispatcher class for each event type that has at most {@code maxListeners} listeners.
+     * <p>
+     * Generated dispatchers call every listener from its own call site, with the cancellation checks unrolled,
+     * which allows the JIT to inline the listeners.
+     * Event types with more listeners are dispatched by looping over the listener array.
+     * <p>
+     * A dispatcher class is generated whenever the listeners of an event type change and the event is posted again,
+     * so this is best suited to buses whose listeners are all registered before posting starts.
+     * <p>
+     * {@code maxListeners} is capped at 332: with more listeners, the generated dispatch method may exceed the size
+     * up to which the JIT compiles methods, and would stay interpreted.
+     *
+     * @param maxListeners the maximum number of listeners for which a dispatcher is generated, {@code 0} to disable
+     * @return the builder instance
+     * @throws IllegalArgumentException if {@code maxListeners} is negative or above 332
+     */
+    BusBuilder generateDispatchers(int maxListeners);
+
+    /**
+     * Link the dispatch of each event type through a {@link java.lang.invoke.MutableCallSite}, which the
+     * {@linkplain IEventBus#poster(Class) posters} of this bus invoke from a class generated for their event type.
+     * <p>
+     * The JIT treats the target of such a call site as a constant, so it can inline the listeners of the event type
+     * into the code calling {@link EventPoster#post(Event)}, especially with {@linkplain #generateDispatchers(int) generated dispatchers}.
+     * Registering or unregistering a listener unlinks the call site, which deoptimizes that code,
+     * and it is linked to the new listeners on the next post.
+     * {@link IEventBus#post(Event)} is not affected.
+     * <p>
+     * Use it for buses whose listeners rarely change once posting starts, and whose events are posted through posters.
+     *
+     * @return the builder instance
+     */
+    BusBuilder relinkOnRegister();
+
+    /**
+     * Set the executor that runs {@linkplain SubscribeEvent#async() asynchronous listeners}.
+     * Each asynchronous listener is submitted as its own task, once per event.
+     * <p>
+     * Defaults to the {@linkplain java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+     *
+     * @param executor the executor for asynchronous listeners
+     * @return the builder instance
+     */
+    BusBuilder asyncListenerExecutor(Executor executor);
+
     /**
      * {@return a built bus configured according to the configuration of this builder}
      */
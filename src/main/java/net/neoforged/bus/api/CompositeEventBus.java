@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.api;
+
+import java.util.List;
+import net.neoforged.bus.CompositeEventBusImpl;
+
+/**
+ * Posts events to a fixed list of {@link IEventBus buses}, honoring listener priority across all of them.
+ * <p>
+ * Posting an event is equivalent to {@linkplain IEventBus#post(EventPriority, Event) posting} it to each bus in order,
+ * one {@link EventPriority} phase after the other, but the listeners of all buses are merged into a single array per event type.
+ * Buses without listeners for the event type are skipped entirely.
+ * The member buses don't need to {@linkplain BusBuilder#allowPerPhasePost() allow per-phase post}.
+ * <p>
+ * The merged listeners are cached, and the cache is invalidated whenever a listener is added to or removed from any of the buses.
+ * The buses only hold on to the composite weakly, and stop notifying it once it is {@linkplain #close() closed} or collected.
+ */
+public interface CompositeEventBus extends AutoCloseable {
+    /**
+     * Create a composite bus posting to the given buses.
+     *
+     * @param buses the buses to post to, in the order their listeners are invoked within each phase
+     * @return a composite bus posting to {@code buses}
+     * @throws IllegalArgumentException if one of the buses was not created by a {@link BusBuilder}
+     */
+    static CompositeEventBus of(List<? extends IEventBus> buses) {
+        return new CompositeEventBusImpl(buses);
+    }
+
+    /**
+     * Submit the event for dispatch to the listeners of all buses, phase by phase.
+     * <p>
+     * Buses that were not started yet are skipped.
+     *
+     * @param event The event to dispatch to listeners
+     * @return the event that was passed in
+     * @throws IllegalStateException if this composite bus was {@linkplain #close() closed}
+     */
+    <T extends Event> T post(T event);
+
+    /**
+     * {@return the buses of this composite bus, in order}
+     */
+    List<IEventBus> buses();
+
+    /**
+     * Stop tracking the listener changes of the buses, after which this composite bus can no longer post events.
+     * Closing a closed composite bus does nothing.
+     */
+    @Override
+    void close();
+}
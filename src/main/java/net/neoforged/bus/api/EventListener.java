@@ -24,6 +24,6 @@ import net.neoforged.bus.SubscribeEventListener;
  * Event listeners are wrapped with implementations of this class.
  */
 public abstract sealed class EventListener
-        permits ConsumerEventHandler, GeneratedEventListener, SubscribeEventListener {
+        permits ConsumerEventHandler, GeneratedEventListener, SubscribeEventListener, SubscriberIndex.Listener {
     public abstract void invoke(Event event);
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.api;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pool of reusable event instances, for mutable events that are posted so often that allocating them shows up in GC pauses.
+ * <p>
+ * Instances are kept per thread, so the pool can be shared freely between threads.
+ * Nested posts on the same thread simply acquire another instance.
+ * <p>
+ * A pooled event must not be used once it has been {@linkplain #release(Event) released},
+ * so listeners must not keep references to it after they return.
+ * {@linkplain SubscribeEvent#async() Asynchronous listeners} run after the post returns, so events that have some
+ * must not be released: {@link #post(IEventBus, Consumer, Function)} leaves them to the garbage collector instead.
+ *
+ * @param <T> the event type
+ */
+public final class EventPool<T extends Event> {
+    private final Supplier<? extends T> factory;
+    private final Consumer<? super T> resetter;
+    private final int maxPooledPerThread;
+    private final ThreadLocal<ArrayDeque<T>> pooled = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Create a pool keeping at most 16 instances per thread.
+     *
+     * @param factory  creates new instances when the pool is empty
+     * @param resetter resets the state of an event before it is returned to the pool;
+     *                 the canceled state is reset automatically
+     */
+    public EventPool(Supplier<? extends T> factory, Consumer<? super T> resetter) {
+        this(factory, resetter, 16);
+    }
+
+    /**
+     * Create a pool.
+     *
+     * @param factory            creates new instances when the pool is empty
+     * @param resetter           resets the state of an event before it is returned to the pool;
+     *                           the canceled state is reset automatically
+     * @param maxPooledPerThread the maximum number of idle instances kept per thread
+     */
+    public EventPool(Supplier<? extends T> factory, Consumer<? super T> resetter, int maxPooledPerThread) {
+        if (maxPooledPerThread < 1) {
+            throw new IllegalArgumentException("maxPooledPerThread must be positive, got " + maxPooledPerThread);
+        }
+        this.factory = factory;
+        this.resetter = resetter;
+        this.maxPooledPerThread = maxPooledPerThread;
+    }
+
+    /**
+     * {@return an event from this thread's pool, or a new event if the pool is empty}
+     * The event must be {@linkplain #release(Event) released} once it is no longer used.
+     */
+    public T acquire() {
+        T event = pooled.get().pollLast();
+        return event != null ? event : factory.get();
+    }
+
+    /**
+     * Reset the event and return it to this thread's pool.
+     * An event must be released at most once per {@link #acquire()}, and not at all if it was posted to
+     * {@linkplain IEventBus#hasAsyncListeners(Class) asynchronous listeners}, which may still be using it.
+     *
+     * @param event the event to release
+     */
+    public void release(T event) {
+        event.isCanceled = false;
+        resetter.accept(event);
+
+        var pool = pooled.get();
+        if (pool.size() < maxPooledPerThread) {
+            pool.addLast(event);
+        }
+    }
+
+    /**
+     * Acquire an event, post it to the bus and release it once the post returns, even if a listener throws.
+     * <p>
+     * If the event has {@linkplain IEventBus#hasAsyncListeners(Class) asynchronous listeners}, which may still run
+     * after the post returns, the event is not released, so that they never see it reset or reused.
+     * <p>
+     * Use non-capturing lambdas for the initializer and the result extractor to post without allocating.
+     *
+     * @param bus         the bus to post to
+     * @param initializer sets up the acquired event before it is posted
+     * @param result      extracts the result from the event after it was posted, before it is released
+     * @return the extracted result
+     */
+    public <R> R post(IEventBus bus, Consumer<? super T> initializer, Function<? super T, ? extends R> result) {
+        T event = acquire();
+        // Checked before and after posting, so that asynchronous listeners registered in the meantime are noticed
+        boolean async = bus.hasAsyncListeners(event.getClass());
+        try {
+            initializer.accept(event);
+            return result.apply(bus.post(event));
+        } finally {
+            if (!async && !bus.hasAsyncListeners(event.getClass())) {
+                release(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.api;
+
+/**
+ * Posts events of a single type to an {@link IEventBus}, without looking up the listeners on each post.
+ *
+ * @param <T> the event type
+ * @see IEventBus#poster(Class)
+ */
+public interface EventPoster<T extends Event> {
+    /**
+     * Submit the event for dispatch to appropriate listeners, like {@link IEventBus#post(Event)}.
+     * <p>
+     * Events of a subclass of the poster's type are still dispatched correctly, but through the slower {@link IEventBus#post(Event)}.
+     *
+     * @param event The event to dispatch to listeners
+     * @return the event that was passed in
+     */
+    T post(T event);
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.api;
+
+/**
+ * Assigns each {@link Event} subclass a small integer id, shared by all {@link IEventBus event buses}.
+ * <p>
+ * Ids are handed out in increasing order starting at {@code 0} as event types are first looked up, and never change.
+ * They are meant to index flat per-type tables, which is how event buses store their listeners.
+ */
+public final class EventTypeIds {
+    private static final Object LOCK = new Object();
+    private static int nextId = 0;
+
+    private static final ClassValue<Integer> IDS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            synchronized (LOCK) {
+                return nextId++;
+            }
+        }
+    };
+
+    private EventTypeIds() {}
+
+    /**
+     * {@return the id of the given event type}
+     *
+     * @param eventType the event type
+     * @throws IllegalArgumentException if the type is not a subclass of {@link Event}
+     */
+    public static int idOf(Class<? extends Event> eventType) {
+        if (!Event.class.isAssignableFrom(eventType)) {
+            throw new IllegalArgumentException(eventType + " is not an Event subtype");
+        }
+        return IDS.get(eventType);
+    }
+
+    /**
+     * {@return an upper bound (exclusive) of all ids handed out so far}
+     * Suitable as the size of a table indexed by event type id.
+     */
+    public static int count() {
+        synchronized (LOCK) {
+            return nextId;
+        }
+    }
+}
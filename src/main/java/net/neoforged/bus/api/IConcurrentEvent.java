@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.api;
+
+/**
+ * Marker interface for events whose listeners are independent of each other.
+ * <p>
+ * The listeners of each {@link EventPriority priority} phase of such an event may be invoked concurrently
+ * on the {@linkplain java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+ * The phases themselves still run one after the other, so all listeners of a phase have completed
+ * before the listeners of the next phase are invoked.
+ * <p>
+ * Listeners of concurrent events must therefore be thread-safe, and should not rely on the effects of other listeners
+ * of the same phase, including their cancellation of the event.
+ */
+public interface IConcurrentEvent {}
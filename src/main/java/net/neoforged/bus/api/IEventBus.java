@@ -17,7 +17,14 @@
 package net.neoforged.bus.api;
 
 import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * EventBus API.
@@ -136,6 +143,132 @@ public interface IEventBus {
      */
     <T extends Event> void addListener(boolean receiveCanceled, Class<T> eventType, Consumer<T> consumer);
 
+    /**
+     * Add a consumer listener that is invoked {@linkplain SubscribeEvent#async() asynchronously},
+     * after all synchronous listeners of the event have completed.
+     * <p>
+     * The listener may run after the post returns, so {@linkplain EventPool pooled} events that it receives are not reused.
+     *
+     * @param eventType The concrete {@link Event} subclass to subscribe to
+     * @param consumer  Callback to invoke when a matching event is received
+     * @param <T>       The {@link Event} subclass to listen for
+     */
+    <T extends Event> void addAsyncListener(Class<T> eventType, Consumer<T> consumer);
+
+    /**
+     * Add a consumer listener that is invoked {@linkplain SubscribeEvent#async() asynchronously},
+     * after all synchronous listeners of the event have completed, potentially for canceled events.
+     *
+     * @param receiveCanceled Indicate if this listener should receive events that have been {@link ICancellableEvent} canceled
+     * @param eventType       The concrete {@link Event} subclass to subscribe to
+     * @param consumer        Callback to invoke when a matching event is received
+     * @param <T>             The {@link Event} subclass to listen for
+     */
+    <T extends Event> void addAsyncListener(boolean receiveCanceled, Class<T> eventType, Consumer<T> consumer);
+
+    /**
+     * Register the listeners of an object or class like {@link #register(Object)}, and return a handle to unregister them.
+     * <p>
+     * The listeners are only tracked by the returned subscription: {@link #unregister(Object)} does not remove them,
+     * and the target's {@code equals} and {@code hashCode} are never used.
+     * Subscribing the same target several times registers its listeners several times.
+     * <p>
+     * Unlike {@link #register(Object)}, if the target is invalid, none of its listeners stay registered.
+     *
+     * @param target either a {@link Class} instance, a static {@link Method} or an arbitrary object, as for {@link #register(Object)}
+     * @return the subscription to {@linkplain Subscription#close() close} to unregister the listeners
+     */
+    Subscription subscribe(Object target);
+
+    /**
+     * Add a consumer listener with default {@link EventPriority#NORMAL}, and return a handle to unregister it.
+     * <p>
+     * The listener is only tracked by the returned subscription, {@link #unregister(Object)} does not remove it.
+     *
+     * @param eventType The concrete {@link Event} subclass to subscribe to
+     * @param consumer  Callback to invoke when a matching event is received
+     * @param <T>       The {@link Event} subclass to listen for
+     * @return the subscription to {@linkplain Subscription#close() close} to unregister the listener
+     */
+    <T extends Event> Subscription subscribe(Class<T> eventType, Consumer<T> consumer);
+
+    /**
+     * Add a consumer listener with the specified {@link EventPriority} and potentially canceled events,
+     * and return a handle to unregister it.
+     * <p>
+     * The listener is only tracked by the returned subscription, {@link #unregister(Object)} does not remove it.
+     *
+     * @param priority        {@link EventPriority} for this listener
+     * @param receiveCanceled Indicate if this listener should receive events that have been {@link ICancellableEvent} canceled
+     * @param eventType       The concrete {@link Event} subclass to subscribe to
+     * @param consumer        Callback to invoke when a matching event is received
+     * @param <T>             The {@link Event} subclass to listen for
+     * @return the subscription to {@linkplain Subscription#close() close} to unregister the listener
+     */
+    <T extends Event> Subscription subscribe(EventPriority priority, boolean receiveCanceled, Class<T> eventType, Consumer<T> consumer);
+
+    /**
+     * Register the {@link SubscribeEvent} methods of an object like {@link #subscribe(Object)},
+     * without keeping the object reachable.
+     * <p>
+     * Once the object is garbage collected, its listeners stop receiving events and are unregistered by a later
+     * registration or post on this bus. They can also be unregistered earlier by closing the returned subscription.
+     * <p>
+     * If the target is invalid, none of its listeners stay registered.
+     *
+     * @param target the object whose instance methods to register, classes and methods are rejected
+     * @return the subscription to {@linkplain Subscription#close() close} to unregister the listeners
+     * @throws IllegalArgumentException if {@code target} is a {@link Class} or a {@link Method}
+     */
+    Subscription registerWeak(Object target);
+
+    /**
+     * Add a consumer listener with default {@link EventPriority#NORMAL}, which is given an owner that the bus
+     * only references weakly.
+     * <p>
+     * The listener is unregistered once the owner is garbage collected, like the listeners of {@link #registerWeak(Object)}.
+     * It must not capture the owner, or the owner stays reachable through this bus.
+     *
+     * @param eventType The concrete {@link Event} subclass to subscribe to
+     * @param owner     the object passed to the listener, weakly referenced
+     * @param listener  Callback to invoke with the owner when a matching event is received
+     * @param <O>       The type of the owner
+     * @param <T>       The {@link Event} subclass to listen for
+     * @return the subscription to {@linkplain Subscription#close() close} to unregister the listener
+     */
+    <O, T extends Event> Subscription addWeakListener(Class<T> eventType, O owner, BiConsumer<? super O, ? super T> listener);
+
+    /**
+     * Register listeners in a batch.
+     * <p>
+     * The {@code register} and {@code addListener} calls that {@code registrations} makes on this bus,
+     * from the calling thread, are collected and only take effect once it returns.
+     * The listeners of each event type are then updated once for the whole batch, instead of once per listener.
+     * Until then, events posted from within the batch don't reach the new listeners.
+     * <p>
+     * If {@code registrations} throws, the listeners registered before the exception are kept, as they would be outside of a batch.
+     * Nested batches are merged into the outermost one.
+     *
+     * @param registrations registers listeners to the bus it is given, which is this bus
+     */
+    void registerBatch(Consumer<IEventBus> registrations);
+
+    /**
+     * Register many targets like {@link #register(Object)}, preparing them concurrently.
+     * <p>
+     * The targets are scanned and validated, and their listeners are created, by tasks submitted to {@code executor}.
+     * The listeners are then registered from the calling thread in one {@linkplain #registerBatch(Consumer) batch},
+     * in the order of {@code targets}, so the resulting listener order does not depend on the executor.
+     * The {@link IEventClassChecker} of this bus may be called from the threads of the executor.
+     * <p>
+     * If a target is invalid, the targets before it stay registered, as well as the listeners of the invalid target
+     * that were created before the error, and its exception is thrown without registering the targets after it.
+     *
+     * @param targets  instances, {@linkplain Class classes} or {@linkplain Method methods}, as for {@link #register(Object)}
+     * @param executor the executor preparing the targets
+     */
+    void registerAll(Collection<?> targets, Executor executor);
+
     /**
      * Unregister the supplied listener from this EventBus.
      *
@@ -174,9 +307,121 @@ public interface IEventBus {
      */
     <T extends Event> T post(EventPriority phase, T event);
 
+    /**
+     * Submit the event for dispatch to appropriate listeners on the given executor.
+     * <p>
+     * The listeners are resolved on the calling thread, so listeners registered after this call returns may not receive the event.
+     * The dispatch itself, in priority order, runs as a single task on {@code executor}.
+     * Exceptions thrown by listeners are passed to the {@linkplain BusBuilder#setExceptionHandler exception handler}
+     * as with {@link #post(Event)}, and then complete the returned future exceptionally.
+     * <p>
+     * If this bus was not started yet, the returned future is already completed with the event.
+     * <p>
+     * {@linkplain SubscribeEvent#async() Asynchronous listeners} are only submitted by the dispatch, and may still run
+     * once the future completes. A {@linkplain EventPool pooled} event can only be released once the future completes,
+     * and must not be released at all if the event has {@linkplain #hasAsyncListeners(Class) asynchronous listeners}.
+     *
+     * @param event    The event to dispatch to listeners
+     * @param executor The executor to dispatch the event on
+     * @return a future completed with the event that was passed in, once all listeners have been invoked
+     */
+    <T extends Event> CompletableFuture<T> postAsync(T event, Executor executor);
+
+    /**
+     * Submit a batch of events of the same type for dispatch to appropriate listeners.
+     * <p>
+     * The listeners are resolved once for the whole batch, and each listener receives every event of the batch before
+     * the next listener is invoked.
+     * Every event still reaches its listeners in priority order and canceled events are skipped by listeners that don't
+     * {@linkplain SubscribeEvent#receiveCanceled() receive canceled events}, so this is equivalent to posting the events
+     * one by one, as long as the listeners of one event do not depend on the effects of listeners on another event of the batch.
+     * <p>
+     * If a listener throws, the listeners before it have already received every event of the batch,
+     * while the listeners after it have received none: unlike with {@link #post(Event)}, earlier events may have been
+     * only partly processed.
+     * <p>
+     * Events that are not exactly of {@code eventType} are posted one by one after the others, in their order in {@code events}.
+     * If this bus was not started yet, the events are not dispatched.
+     * <p>
+     * The batch is dispatched through the regular listener cache, even if this bus is {@linkplain #freeze() frozen}
+     * or {@linkplain BusBuilder#relinkOnRegister() relinks on register}.
+     *
+     * @param eventType The {@link Event} subclass of the events
+     * @param events    The events to dispatch to listeners
+     */
+    <T extends Event> void postAll(Class<T> eventType, List<? extends T> events);
+
+    /**
+     * Check whether any listener would receive an event of the given type, including listeners of its supertypes.
+     * <p>
+     * Unlike {@link #post(Event)}, this does not set up any internal state for event types without listeners.
+     *
+     * @param eventType The {@link Event} subclass to check
+     * @return {@code true} if posting an event of this exact type would reach at least one listener
+     */
+    boolean hasListeners(Class<? extends Event> eventType);
+
+    /**
+     * Check whether any {@linkplain SubscribeEvent#async() asynchronous listener} would receive an event of the given type,
+     * including listeners of its supertypes.
+     * <p>
+     * Such listeners may still use the event after {@link #post(Event)} returns, so it must not be reused until they are done,
+     * as {@link EventPool#post(IEventBus, Consumer, java.util.function.Function)} ensures.
+     *
+     * @param eventType The {@link Event} subclass to check
+     * @return {@code true} if posting an event of this exact type would reach at least one asynchronous listener
+     */
+    boolean hasAsyncListeners(Class<? extends Event> eventType);
+
+    /**
+     * Create an event and submit it for dispatch, but only if anyone listens to it.
+     * <p>
+     * The factory is only invoked if this bus is started and {@link #hasListeners(Class) has listeners} for {@code eventType},
+     * which avoids constructing expensive events that nobody would receive.
+     * <p>
+     * Only the listeners of {@code eventType} are checked, so the factory must create events of exactly that type:
+     * an event of a subclass could have listeners that {@code eventType} doesn't have.
+     *
+     * @param eventType    The {@link Event} subclass that the factory creates
+     * @param eventFactory Creates the event to dispatch
+     * @return the event that was created and posted, or {@code null} if the factory was not invoked
+     * @throws IllegalArgumentException if the factory created an event that is not exactly of type {@code eventType},
+     *                                  in which case it is not posted
+     */
+    @Nullable
+    <T extends Event> T post(Class<T> eventType, Supplier<? extends T> eventFactory);
+
+    /**
+     * Create a poster for events of exactly the given type.
+     * <p>
+     * The poster resolves the listeners of {@code eventType} once, instead of looking them up on every {@link #post(Event)},
+     * and keeps dispatching to the up-to-date listeners when listeners are registered or unregistered later.
+     * Keep the poster around for call sites that repeatedly post the same event type.
+     *
+     * @param eventType The concrete {@link Event} subclass that will be posted
+     * @return a poster dispatching events of {@code eventType} on this bus
+     * @throws IllegalArgumentException if {@code eventType} is abstract or not valid for this bus
+     */
+    <T extends Event> EventPoster<T> poster(Class<T> eventType);
+
     /**
      * Start this bus (if it was {@linkplain BusBuilder#startShutdown() created shut down}), making it able to
      * post events to listeners.
      */
     void start();
+
+    /**
+     * Freeze the listeners of this bus, once it is started and all listeners are registered.
+     * <p>
+     * From then on, registering or unregistering listeners throws an {@link IllegalStateException}, and so does
+     * closing a {@link Subscription}. Weak listeners stay registered after their target is collected, without being invoked.
+     * In exchange, {@link #post(Event)} dispatches through dispatchers built once at freeze time, generated whenever
+     * possible, without checking for listener changes or for the bus being shut down.
+     * <p>
+     * Listeners must not be registered concurrently with this call.
+     * Freezing a frozen bus does nothing.
+     *
+     * @throws IllegalStateException if this bus was not {@linkplain #start() started}, or if called from {@link #registerBatch(Consumer)}
+     */
+    void freeze();
 }
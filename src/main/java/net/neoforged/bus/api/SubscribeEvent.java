@@ -45,4 +45,17 @@ public @interface SubscribeEvent {
      * {@return whether this listener should receive cancelled events}
      */
     boolean receiveCanceled() default false;
+
+    /**
+     * Whether this listener is invoked asynchronously, after all synchronous listeners of the event have completed.
+     * <p>
+     * Asynchronous listeners run on the {@linkplain BusBuilder#asyncListenerExecutor executor of the bus}
+     * and don't block {@link IEventBus#post(Event)}. They ignore the {@link #priority()}, and since the outcome of the event
+     * is already decided when they run, they must not modify or cancel the event.
+     * Since they may run after the post returns, {@link EventPool#post(IEventBus, java.util.function.Consumer, java.util.function.Function)}
+     * does not reuse the events they receive.
+     *
+     * @return whether this listener should be invoked asynchronously
+     */
+    boolean async() default false;
 }
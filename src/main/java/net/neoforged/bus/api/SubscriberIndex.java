@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.api;
+
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The {@link SubscribeEvent} methods of one listener class, generated at compile time by the {@code bus-processor}
+ * annotation processor, which also validates them.
+ * <p>
+ * When a class or one of its instances is registered, the bus looks for the index of the class: a class in the same package,
+ * named after the binary name of the listener class followed by {@link #SUFFIX}.
+ * If the index exists and is accessible to the bus, the listeners are created through it,
+ * without reflection or classes generated at runtime. Otherwise the bus falls back to reflection.
+ * <p>
+ * Not meant to be implemented by hand.
+ */
+public abstract class SubscriberIndex {
+    /**
+     * The suffix appended to the binary name of a listener class to get the name of its index.
+     */
+    public static final String SUFFIX = "$$SubscriberIndex";
+
+    private final List<Entry> entries;
+
+    protected SubscriberIndex(Entry... entries) {
+        this.entries = List.of(entries);
+    }
+
+    /**
+     * {@return the {@link SubscribeEvent} methods of the class, in declaration order}
+     */
+    public final List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * {@return a listener invoking the method of the entry at {@code index} on {@code target}}
+     *
+     * @param target the instance to invoke the method on, ignored for static methods
+     */
+    public abstract EventListener create(int index, @Nullable Object target);
+
+    /**
+     * Invokes the method of the entry at {@code index} once, without creating a listener.
+     *
+     * @param target the instance to invoke the method on, ignored for static methods
+     */
+    public abstract void invoke(int index, @Nullable Object target, Event event);
+
+    /**
+     * Rethrows the exception thrown by a method that declares checked exceptions, as the method handles
+     * used without an index would.
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T extends Throwable> RuntimeException rethrow(Throwable throwable) throws T {
+        throw (T) throwable;
+    }
+
+    /**
+     * Base class of the listeners returned by {@link #create(int, Object)}.
+     * Unlike the classes generated at runtime, generated indexes are compiled against a given version of the bus,
+     * so they only extend this stable base class.
+     * <p>
+     * Only the classes nested in a generated index may extend it, which keeps the {@link EventListener} hierarchy closed
+     * to other classes despite this class being non-sealed.
+     */
+    public abstract static non-sealed class Listener extends EventListener {
+        /**
+         * @throws IllegalStateException if the listener class is not nested in a {@link SubscriberIndex}
+         */
+        protected Listener() {
+            if (!SubscriberIndex.class.isAssignableFrom(getClass().getNestHost())) {
+                throw new IllegalStateException(getClass() + " is not nested in a SubscriberIndex, only generated indexes may extend SubscriberIndex.Listener");
+            }
+        }
+    }
+
+    /**
+     * A {@link SubscribeEvent} method of the indexed class.
+     *
+     * @param name            the name of the method
+     * @param descriptor      the descriptor of the method
+     * @param isStatic        whether the method is static
+     * @param eventType       the event type the method takes
+     * @param priority        the {@link SubscribeEvent#priority() priority} of the method
+     * @param receiveCanceled whether the method {@link SubscribeEvent#receiveCanceled() receives canceled events}
+     * @param async           whether the method is {@link SubscribeEvent#async() asynchronous}
+     */
+    public record Entry(
+            String name,
+            String descriptor,
+            boolean isStatic,
+            Class<? extends Event> eventType,
+            EventPriority priority,
+            boolean receiveCanceled,
+            boolean async) {}
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.bus.api;
+
+/**
+ * Handle to the listeners registered by one of the {@code subscribe} methods of {@link IEventBus}.
+ * <p>
+ * Closing the subscription unregisters exactly those listeners, without needing the object or consumer they were registered with.
+ */
+public interface Subscription extends AutoCloseable {
+    /**
+     * Unregister the listeners of this subscription. Does nothing if the subscription was already closed.
+     */
+    @Override
+    void close();
+}